@@ -46,4 +46,10 @@ dependencies {
     
     // SwipeRefreshLayout
     implementation("androidx.swiperefreshlayout:swiperefreshlayout:1.1.0")
+
+    // Off-main-thread inflation for the calendar's alternate views
+    implementation("androidx.asynclayoutinflater:asynclayoutinflater:1.0.0")
+
+    // Virtual accessibility nodes for the canvas-drawn calendar views
+    implementation("androidx.customview:customview:1.1.0")
 }
\ No newline at end of file
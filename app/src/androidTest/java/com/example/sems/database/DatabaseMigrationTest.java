@@ -0,0 +1,325 @@
+package com.example.sems.database;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.sems.models.Event;
+import com.example.sems.models.EventSummary;
+import com.example.sems.models.MonthSummary;
+import com.example.sems.models.RecurrenceRule;
+import com.example.sems.models.ScheduleConflicts;
+import com.example.sems.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests that upgrade a populated version 2 database through
+ * DatabaseHelper, then check that existing rows survive the migration and that
+ * each feature added since works on them.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseMigrationTest {
+    private static final String TEST_DB = "migration-test.db";
+    private static final String TEST_ARCHIVE_DB = "migration-test-events-2023.db";
+
+    // Schema exactly as shipped in version 2
+    private static final String V2_CREATE_USERS = "CREATE TABLE users("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+            + "email TEXT UNIQUE,"
+            + "password TEXT,"
+            + "name TEXT,"
+            + "phone_number TEXT,"
+            + "department TEXT,"
+            + "position TEXT,"
+            + "role TEXT,"
+            + "is_active INTEGER"
+            + ")";
+    private static final String V2_CREATE_EVENTS = "CREATE TABLE IF NOT EXISTS events("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+            + "title TEXT NOT NULL,"
+            + "description TEXT NOT NULL,"
+            + "start_date INTEGER NOT NULL,"
+            + "end_date INTEGER NOT NULL,"
+            + "location TEXT NOT NULL,"
+            + "organizer TEXT NOT NULL,"
+            + "is_active INTEGER NOT NULL DEFAULT 1,"
+            + "FOREIGN KEY(organizer) REFERENCES users(email)"
+            + ")";
+
+    private static final long ORIENTATION_START = 1_700_000_000_000L;
+
+    private Context context;
+    private DatabaseHelper helper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(TEST_DB);
+        context.deleteDatabase(TEST_ARCHIVE_DB);
+        SessionStore.getInstance().clear();
+    }
+
+    @After
+    public void tearDown() {
+        if (helper != null) {
+            helper.close();
+        }
+        SessionStore.getInstance().clear();
+        context.deleteDatabase(TEST_DB);
+        context.deleteDatabase(TEST_ARCHIVE_DB);
+    }
+
+    @Test
+    public void upgradeFromVersion2_keepsRowsAndAddsIndexes() {
+        SQLiteDatabase db = openUpgraded();
+        assertEquals(DatabaseHelper.DATABASE_VERSION, db.getVersion());
+
+        List<Event> events = helper.getEventsByOrganizer("organizer@sems.com");
+        assertEquals(3, events.size());
+        assertEquals("Orientation", events.get(0).getTitle());
+        assertEquals("Main Hall", events.get(0).getLocation());
+        assertEquals(ORIENTATION_START, events.get(0).getStartMillis());
+
+        assertTrue(indexExists(db, "idx_events_start_date"));
+        assertTrue(indexExists(db, "idx_events_organizer_start"));
+        assertTrue(indexExists(db, "idx_events_active_start"));
+    }
+
+    @Test
+    public void authenticate_setsSessionSnapshotWithoutPassword() {
+        openUpgraded();
+
+        assertNull(helper.authenticate("admin@sems.com", "wrong"));
+        User admin = helper.authenticate("admin@sems.com", "secret");
+        assertTrue(admin.isAdmin());
+        assertNull(admin.getPassword());
+        assertEquals("admin@sems.com", SessionStore.getInstance().getCurrentUser().getEmail());
+
+        // The snapshot only answers for its own email; others load without replacing it
+        assertSame(SessionStore.getInstance().getCurrentUser(),
+                SessionStore.getInstance().getUser(helper, "ADMIN@sems.com"));
+        User organizer = SessionStore.getInstance().getUser(helper, "organizer@sems.com");
+        assertEquals("organizer@sems.com", organizer.getEmail());
+        assertEquals("admin@sems.com", SessionStore.getInstance().getCurrentUser().getEmail());
+    }
+
+    @Test
+    public void usersPage_ordersByNameWithoutPasswords() {
+        SQLiteDatabase db = openUpgraded();
+
+        assertTrue(indexExists(db, "idx_users_name_id"));
+        List<User> firstUsers = helper.getUsersPage(null, 1);
+        assertEquals("admin@sems.com", firstUsers.get(0).getEmail());
+        assertNull(firstUsers.get(0).getPassword());
+        List<User> nextUsers = helper.getUsersPage(firstUsers.get(0), 1);
+        assertEquals("organizer@sems.com", nextUsers.get(0).getEmail());
+        assertTrue(helper.getUsersPage(nextUsers.get(0), 1).isEmpty());
+    }
+
+    @Test
+    public void searchEvents_findsMigratedRows() {
+        openUpgraded();
+
+        List<EventSummary> matches = helper.searchEvents("orient", 10);
+        assertEquals(1, matches.size());
+        assertEquals("Orientation", matches.get(0).getTitle());
+        assertTrue(helper.searchEvents("orient", "admin@sems.com", 10).isEmpty());
+    }
+
+    @Test
+    public void counters_includeMigratedRows() {
+        openUpgraded();
+
+        assertEquals(2, helper.getTotalUsers());
+        assertEquals(1, helper.countUsersByRole("admin"));
+        assertEquals(3, helper.getTotalEvents());
+        assertEquals(3, helper.getTotalEventsByOrganizer("organizer@sems.com"));
+
+        // Overlap queries find rows that existed before the upgrade
+        LocalDate day = toLocalDate(ORIENTATION_START);
+        assertEquals(1, helper.getEventCountsByDay(day, day.plusDays(1))[0]);
+    }
+
+    @Test
+    public void findConflicts_matchesBackfilledLocationKey() {
+        SQLiteDatabase db = openUpgraded();
+
+        assertTrue(indexExists(db, "idx_events_location_start"));
+        ScheduleConflicts conflicts = helper.findConflicts("someone@sems.com", " main  HALL ",
+                ORIENTATION_START + 1_800_000L, ORIENTATION_START + 7_200_000L, 0);
+        assertTrue(conflicts.getOrganizerConflicts().isEmpty());
+        assertEquals(1, conflicts.getLocationConflicts().size());
+        assertEquals("Orientation", conflicts.getLocationConflicts().get(0).getTitle());
+    }
+
+    @Test
+    public void recurringSeries_isStoredOnceAndExpandedPerWindow() {
+        openUpgraded();
+
+        long seriesStart = ORIENTATION_START + 30L * 86_400_000L;
+        long seriesId = helper.addRecurringEvent(staffMeeting(seriesStart),
+                new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 1, 3, 0, null));
+        assertNotEquals(-1, seriesId);
+        assertEquals(4, helper.getTotalEvents());
+
+        LocalDate seriesDay = toLocalDate(seriesStart);
+        int[] counts = helper.getEventCountsByDay(seriesDay, seriesDay.plusDays(28));
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[7]);
+        assertEquals(1, counts[14]);
+        assertEquals(0, counts[21]);
+    }
+
+    @Test
+    public void archivePastYears_keepsEventsReadableAndWritable() {
+        openUpgraded();
+        long seriesStart = ORIENTATION_START + 30L * 86_400_000L;
+        assertNotEquals(-1, helper.addRecurringEvent(staffMeeting(seriesStart),
+                new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 1, 3, 0, null)));
+
+        // 2023 lies outside the hot years, so its single events move to an archive
+        // file and are still counted and paged; the series stays in the main table
+        assertEquals(3, helper.archivePastYears());
+        assertEquals(0, helper.archivePastYears());
+        assertEquals(4, helper.getTotalEvents());
+        assertEquals(4, helper.getTotalEventsByOrganizer("organizer@sems.com"));
+        List<EventSummary> page = helper.getEventsByOrganizerPage("organizer@sems.com", null, 10);
+        assertEquals(4, page.size());
+        assertEquals("Staff Meeting", page.get(0).getTitle());
+        assertEquals("Orientation", page.get(3).getTitle());
+
+        // List rows are summaries; the full event, archived or not, loads by id
+        int archivedId = page.get(3).getId();
+        Event archived = helper.getEvent(archivedId);
+        assertEquals("Orientation description", archived.getDescription());
+        assertEquals("organizer@sems.com", archived.getOrganizer());
+
+        // Search falls through to the archive file's own full-text index
+        List<EventSummary> matches = helper.searchEvents("orient", 10);
+        assertEquals(1, matches.size());
+        assertEquals(archivedId, matches.get(0).getId());
+
+        // Updates and deletes reach the partition holding the row
+        Event renamed = archived.toBuilder().setTitle("Welcome Week").build();
+        assertEquals(1, helper.updateEvent(renamed));
+        assertEquals("Welcome Week", helper.getEvent(archivedId).getTitle());
+        assertEquals(1, helper.deleteEvent(archivedId));
+        assertNull(helper.getEvent(archivedId));
+        assertEquals(0, helper.deleteEvent(archivedId));
+        assertEquals(3, helper.getTotalEvents());
+    }
+
+    @Test
+    public void monthSummary_isStoredUntilEventsChange() {
+        SQLiteDatabase db = openUpgraded();
+
+        LocalDate day = toLocalDate(ORIENTATION_START);
+        MonthSummary summary = helper.getMonthSummary(YearMonth.from(day));
+        assertTrue(summary.hasEvents(day.getDayOfMonth()));
+        assertEquals(1, summary.getCount(day.getDayOfMonth()));
+        assertEquals(1, countRows(db, "month_summaries"));
+        assertEquals(summary, helper.getMonthSummary(YearMonth.from(day)));
+
+        assertNotEquals(-1, helper.addEvent(staffMeeting(ORIENTATION_START)));
+        assertEquals(0, countRows(db, "month_summaries"));
+        assertEquals(2, helper.getMonthSummary(YearMonth.from(day)).getCount(day.getDayOfMonth()));
+    }
+
+    // Creates the version 2 file and opens it through the helper, running every migration
+    private SQLiteDatabase openUpgraded() {
+        createVersion2Database();
+        helper = new DatabaseHelper(context, TEST_DB);
+        return helper.getWritableDatabase();
+    }
+
+    private static Event staffMeeting(long start) {
+        return Event.builder()
+                .setTitle("Staff Meeting")
+                .setDescription("Weekly sync")
+                .setStartMillis(start)
+                .setEndMillis(start + 3_600_000L)
+                .setLocation("Room 1")
+                .setOrganizer("organizer@sems.com")
+                .build();
+    }
+
+    private static LocalDate toLocalDate(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private void createVersion2Database() {
+        File path = context.getDatabasePath(TEST_DB);
+        path.getParentFile().mkdirs();
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(path, null);
+        try {
+            db.execSQL(V2_CREATE_USERS);
+            db.execSQL(V2_CREATE_EVENTS);
+            insertUser(db, "admin@sems.com", "admin");
+            insertUser(db, "organizer@sems.com", "user");
+            insertEvent(db, "Orientation", "Main Hall", ORIENTATION_START);
+            insertEvent(db, "Career Fair", "Gym", 1_700_086_400_000L);
+            insertEvent(db, "Graduation", "Stadium", 1_700_172_800_000L);
+            db.setVersion(2);
+        } finally {
+            db.close();
+        }
+    }
+
+    private void insertUser(SQLiteDatabase db, String email, String role) {
+        ContentValues values = new ContentValues();
+        values.put("email", email);
+        values.put("password", "secret");
+        values.put("name", email);
+        values.put("role", role);
+        values.put("is_active", 1);
+        assertNotEquals(-1, db.insert("users", null, values));
+    }
+
+    private void insertEvent(SQLiteDatabase db, String title, String location, long start) {
+        ContentValues values = new ContentValues();
+        values.put("title", title);
+        values.put("description", title + " description");
+        values.put("start_date", start);
+        values.put("end_date", start + 3_600_000L);
+        values.put("location", location);
+        values.put("organizer", "organizer@sems.com");
+        values.put("is_active", 1);
+        assertNotEquals(-1, db.insert("events", null, values));
+    }
+
+    private int countRows(SQLiteDatabase db, String table) {
+        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + table, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private boolean indexExists(SQLiteDatabase db, String name) {
+        Cursor cursor = db.rawQuery("SELECT 1 FROM sqlite_master WHERE type = 'index' AND name = ?",
+                new String[]{name});
+        try {
+            return cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -3,26 +3,46 @@ package com.example.sems;
 import android.app.DatePickerDialog;
 import android.app.TimePickerDialog;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
+import android.view.View;
+import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.example.sems.database.DatabaseHelper;
+import com.example.sems.database.AsyncDatabase;
+import com.example.sems.database.ConflictChecker;
+import com.example.sems.database.SessionStore;
 import com.example.sems.models.Event;
+import com.example.sems.models.RecurrenceRule;
+import com.example.sems.models.ScheduleConflicts;
 import com.example.sems.models.User;
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.textfield.TextInputEditText;
+import com.google.android.material.textfield.TextInputLayout;
 
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 
 public class CreateEventActivity extends AppCompatActivity {
     private static final String TAG = "CreateEventActivity";
+    // Repeat choices; index 0 is a single event, the rest follow RecurrenceRule.Frequency
+    private static final String[] REPEAT_OPTIONS = {"Does not repeat", "Daily", "Weekly", "Monthly"};
 
-    private TextInputEditText etTitle, etDescription, etLocation;
+    private TextInputEditText etTitle, etDescription, etLocation, etRepeatCount;
+    private AutoCompleteTextView spinnerRepeat;
+    private TextInputLayout tilRepeatCount;
     private Button btnStartDate, btnEndDate, btnCreate;
-    private DatabaseHelper dbHelper;
+    private TextView tvConflictWarning;
+    private AsyncDatabase asyncDb;
+    private ConflictChecker conflictChecker;
     private Date startDate, endDate;
     private User currentUser;
 
@@ -33,7 +53,8 @@ public class CreateEventActivity extends AppCompatActivity {
             setContentView(R.layout.activity_create_event);
 
             // Initialize database
-            dbHelper = new DatabaseHelper(this);
+            asyncDb = AsyncDatabase.getInstance(this);
+            conflictChecker = new ConflictChecker(asyncDb, this::showConflicts);
             
             // Get and validate user email
             String userEmail = getIntent().getStringExtra("user_email");
@@ -46,24 +67,32 @@ public class CreateEventActivity extends AppCompatActivity {
                 return;
             }
 
-            // Get user from database
-            currentUser = dbHelper.getUserByEmail(userEmail);
-            Log.d(TAG, "Retrieved user from database: " + (currentUser != null ? currentUser.getEmail() : "null"));
-            
-            if (currentUser == null) {
-                Log.e(TAG, "User not found in database for email: " + userEmail);
-                Toast.makeText(this, "User not found", Toast.LENGTH_SHORT).show();
-                finish();
-                return;
-            }
-
             // Initialize views and setup
             initializeViews();
             setupInitialDates();
             setupDatePickers();
+            setupRepeatOptions();
             setupCreateButton();
+            setupConflictChecks();
             setupActionBar();
-            
+
+            // Get user from database; creating stays disabled until it is known
+            btnCreate.setEnabled(false);
+            SessionStore.getInstance().getUser(asyncDb, userEmail, user -> {
+                if (isFinishing() || isDestroyed()) return;
+                currentUser = user;
+                Log.d(TAG, "Retrieved user from database: " + (currentUser != null ? currentUser.getEmail() : "null"));
+
+                if (currentUser == null) {
+                    Log.e(TAG, "User not found in database for email: " + userEmail);
+                    Toast.makeText(this, "User not found", Toast.LENGTH_SHORT).show();
+                    finish();
+                    return;
+                }
+                btnCreate.setEnabled(true);
+                requestConflictCheck();
+            });
+
             Log.d(TAG, "Activity initialization completed successfully");
         } catch (Exception e) {
             Log.e(TAG, "Error in onCreate: " + e.getMessage(), e);
@@ -80,6 +109,10 @@ public class CreateEventActivity extends AppCompatActivity {
             btnStartDate = findViewById(R.id.btnStartDate);
             btnEndDate = findViewById(R.id.btnEndDate);
             btnCreate = findViewById(R.id.btnCreate);
+            spinnerRepeat = findViewById(R.id.spinnerRepeat);
+            tilRepeatCount = findViewById(R.id.tilRepeatCount);
+            etRepeatCount = findViewById(R.id.etRepeatCount);
+            tvConflictWarning = findViewById(R.id.tvConflictWarning);
         } catch (Exception e) {
             Log.e(TAG, "Error in initializeViews: " + e.getMessage());
             throw e;
@@ -192,6 +225,7 @@ public class CreateEventActivity extends AppCompatActivity {
                                 endDate = calendar.getTime();
                             }
                             updateDateTimeButtons();
+                            requestConflictCheck();
                         } catch (Exception e) {
                             Log.e(TAG, "Error setting time: " + e.getMessage());
                             Toast.makeText(this, "Error setting time", Toast.LENGTH_SHORT).show();
@@ -215,6 +249,94 @@ public class CreateEventActivity extends AppCompatActivity {
         }
     }
 
+    private void setupRepeatOptions() {
+        try {
+            ArrayAdapter<String> repeatAdapter = new ArrayAdapter<>(
+                    this,
+                    android.R.layout.simple_dropdown_item_1line,
+                    REPEAT_OPTIONS
+            );
+            spinnerRepeat.setAdapter(repeatAdapter);
+            spinnerRepeat.setText(REPEAT_OPTIONS[0], false);
+            spinnerRepeat.setOnItemClickListener((parent, view, position, id) ->
+                    tilRepeatCount.setVisibility(position == 0 ? View.GONE : View.VISIBLE));
+        } catch (Exception e) {
+            Log.e(TAG, "Error in setupRepeatOptions: " + e.getMessage());
+        }
+    }
+
+    // Null for a single event; throws NumberFormatException for an unusable count
+    private RecurrenceRule buildRecurrenceRule() {
+        int option = Arrays.asList(REPEAT_OPTIONS).indexOf(spinnerRepeat.getText().toString());
+        if (option <= 0) {
+            return null;
+        }
+        String countText = etRepeatCount.getText() != null ? etRepeatCount.getText().toString().trim() : "";
+        int count = countText.isEmpty() ? 0 : Integer.parseInt(countText);
+        if (!countText.isEmpty() && count < 2) {
+            throw new NumberFormatException("A series needs at least 2 occurrences");
+        }
+        return new RecurrenceRule(RecurrenceRule.Frequency.values()[option - 1], 1, count, 0, null);
+    }
+
+    private void setupConflictChecks() {
+        try {
+            etLocation.addTextChangedListener(new TextWatcher() {
+                @Override
+                public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+                }
+
+                @Override
+                public void onTextChanged(CharSequence s, int start, int before, int count) {
+                }
+
+                @Override
+                public void afterTextChanged(Editable s) {
+                    requestConflictCheck();
+                }
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "Error in setupConflictChecks: " + e.getMessage());
+        }
+    }
+
+    // Re-checks the entered slot; the checker debounces bursts of edits
+    private void requestConflictCheck() {
+        if (currentUser == null || startDate == null || endDate == null || !endDate.after(startDate)) {
+            conflictChecker.cancel();
+            showConflicts(null);
+            return;
+        }
+        String location = etLocation.getText() != null ? etLocation.getText().toString() : "";
+        conflictChecker.check(currentUser.getEmail(), location, startDate.getTime(), endDate.getTime(), 0);
+    }
+
+    private void showConflicts(ScheduleConflicts result) {
+        if (isFinishing() || isDestroyed()) return;
+        if (result == null || result.isEmpty()) {
+            tvConflictWarning.setVisibility(View.GONE);
+            return;
+        }
+        StringBuilder warning = new StringBuilder();
+        appendConflicts(warning, "You already have an event at this time", result.getOrganizerConflicts());
+        appendConflicts(warning, "This location is already booked", result.getLocationConflicts());
+        tvConflictWarning.setText(warning.toString().trim());
+        tvConflictWarning.setVisibility(View.VISIBLE);
+    }
+
+    private void appendConflicts(StringBuilder warning, String heading, List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        warning.append(heading).append(":\n");
+        for (Event event : events) {
+            warning.append("\u2022 ").append(event.getTitle()).append(" (")
+                    .append(formatDateTime(event.getStartDate())).append(" - ")
+                    .append(formatDateTime(event.getEndDate())).append(")\n");
+        }
+        warning.append("\n");
+    }
+
     private void setupActionBar() {
         try {
             if (getSupportActionBar() != null) {
@@ -312,16 +434,14 @@ public class CreateEventActivity extends AppCompatActivity {
             }
 
             // Create event object
-            Event event = new Event(
-                0,
-                title,
-                description,
-                startDate,
-                endDate,
-                location,
-                currentUser.getEmail(),
-                true
-            );
+            Event event = Event.builder()
+                    .setTitle(title)
+                    .setDescription(description)
+                    .setStartMillis(startDate.getTime())
+                    .setEndMillis(endDate.getTime())
+                    .setLocation(location)
+                    .setOrganizer(currentUser.getEmail())
+                    .build();
 
             Log.d(TAG, "Created event object: " + event.toString());
 
@@ -334,24 +454,85 @@ public class CreateEventActivity extends AppCompatActivity {
 
             Log.d(TAG, "Event validation passed, attempting to save to database");
 
-            // Attempt to save event
-            long result = dbHelper.addEvent(event);
-
-            if (result != -1) {
-                Log.d(TAG, "Event created successfully with ID: " + result);
-                setResult(RESULT_OK);
-                Toast.makeText(this, "Event created successfully", Toast.LENGTH_SHORT).show();
-                finish();
-            } else {
-                Log.e(TAG, "Failed to create event in database");
-                Toast.makeText(this, "Failed to create event. Please try again.", Toast.LENGTH_SHORT).show();
+            RecurrenceRule rule;
+            etRepeatCount.setError(null);
+            try {
+                rule = buildRecurrenceRule();
+            } catch (NumberFormatException e) {
+                etRepeatCount.setError("Enter at least 2 occurrences, or leave blank");
+                Log.e(TAG, "Repeat count validation failed: " + e.getMessage());
+                return;
             }
+
+            checkConflictsAndSave(event, rule);
         } catch (Exception e) {
             Log.e(TAG, "Error in createEvent: " + e.getMessage(), e);
             Toast.makeText(this, "Error creating event: " + e.getMessage(), Toast.LENGTH_SHORT).show();
         }
     }
 
+    /**
+     * Checks the final slot once more before saving: the warning shown while editing
+     * can lag the last change by the debounce delay plus the query, or still be
+     * pending. Double-booking is allowed, but only once the user has seen the clash.
+     */
+    private void checkConflictsAndSave(Event event, RecurrenceRule rule) {
+        // A debounced check finishing later must not overwrite this result
+        conflictChecker.cancel();
+        btnCreate.setEnabled(false);
+        asyncDb.execute(db -> db.findConflicts(event.getOrganizer(), event.getLocation(),
+                event.getStartMillis(), event.getEndMillis(), 0), new AsyncDatabase.Callback<ScheduleConflicts>() {
+            @Override
+            public void onResult(ScheduleConflicts result) {
+                if (isFinishing() || isDestroyed()) return;
+                showConflicts(result);
+                if (result == null || result.isEmpty()) {
+                    saveEvent(event, rule);
+                    return;
+                }
+                btnCreate.setEnabled(true);
+                new MaterialAlertDialogBuilder(CreateEventActivity.this)
+                        .setTitle("Scheduling Conflict")
+                        .setMessage(tvConflictWarning.getText())
+                        .setPositiveButton("Create Anyway", (dialog, which) -> saveEvent(event, rule))
+                        .setNegativeButton("Cancel", null)
+                        .show();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (isFinishing() || isDestroyed()) return;
+                Log.e(TAG, "Error checking conflicts: " + e.getMessage(), e);
+                Toast.makeText(CreateEventActivity.this, "Could not check for conflicts. Please try again.",
+                        Toast.LENGTH_SHORT).show();
+                btnCreate.setEnabled(true);
+            }
+        });
+    }
+
+    private void saveEvent(Event event, RecurrenceRule rule) {
+        try {
+            // Attempt to save event; the button stays disabled while the insert runs
+            btnCreate.setEnabled(false);
+            asyncDb.execute(db -> rule != null ? db.addRecurringEvent(event, rule) : db.addEvent(event), result -> {
+                if (isFinishing() || isDestroyed()) return;
+                if (result != -1) {
+                    Log.d(TAG, "Event created successfully with ID: " + result);
+                    setResult(RESULT_OK);
+                    Toast.makeText(this, "Event created successfully", Toast.LENGTH_SHORT).show();
+                    finish();
+                } else {
+                    Log.e(TAG, "Failed to create event in database");
+                    Toast.makeText(this, "Failed to create event. Please try again.", Toast.LENGTH_SHORT).show();
+                    btnCreate.setEnabled(true);
+                }
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "Error in saveEvent: " + e.getMessage(), e);
+            Toast.makeText(this, "Error creating event: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+        }
+    }
+
     private String formatDateTime(Date date) {
         try {
             if (date != null) {
@@ -365,6 +546,21 @@ public class CreateEventActivity extends AppCompatActivity {
         }
     }
 
+    @Override
+    protected void onDestroy() {
+        try {
+            super.onDestroy();
+            if (conflictChecker != null) {
+                conflictChecker.cancel();
+            }
+            if (asyncDb != null) {
+                asyncDb.release();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error in onDestroy: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public boolean onSupportNavigateUp() {
         try {
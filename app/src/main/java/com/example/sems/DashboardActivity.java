@@ -5,6 +5,7 @@ import android.os.Bundle;
 import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
+import android.view.View;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
@@ -15,7 +16,8 @@ import androidx.navigation.Navigation;
 import androidx.navigation.fragment.NavHostFragment;
 import androidx.navigation.ui.NavigationUI;
 
-import com.example.sems.database.DatabaseHelper;
+import com.example.sems.database.AsyncDatabase;
+import com.example.sems.database.SessionStore;
 import com.example.sems.fragments.CalendarFragment;
 import com.example.sems.fragments.EventsFragment;
 import com.example.sems.fragments.HomeFragment;
@@ -31,7 +33,7 @@ public class DashboardActivity extends AppCompatActivity implements NavigationBa
     private BottomNavigationView bottomNavigationView;
     private NavController navController;
     private MaterialToolbar toolbar;
-    private DatabaseHelper dbHelper;
+    private AsyncDatabase asyncDb;
     private User currentUser;
     private String userEmail;
 
@@ -42,7 +44,7 @@ public class DashboardActivity extends AppCompatActivity implements NavigationBa
             setContentView(R.layout.activity_dashboard);
 
             // Initialize database helper
-            dbHelper = new DatabaseHelper(this);
+            asyncDb = AsyncDatabase.getInstance(this);
 
             // Initialize views
             bottomNavigationView = findViewById(R.id.bottom_navigation);
@@ -60,21 +62,46 @@ public class DashboardActivity extends AppCompatActivity implements NavigationBa
                 return;
             }
 
-            // Get current user
-            currentUser = dbHelper.getUserByEmail(userEmail);
-            if (currentUser == null) {
-                Log.e(TAG, "User not found for email: " + userEmail);
-                Toast.makeText(this, "User not found", Toast.LENGTH_SHORT).show();
-                finish();
-                return;
-            }
-            Log.d(TAG, "Current user loaded: " + currentUser.getEmail());
+            // Get current user; navigation is wired up once it is confirmed
+            View loadingView = findViewById(R.id.progressLoading);
+            loadingView.setVisibility(View.VISIBLE);
+            bottomNavigationView.setEnabled(false);
+            SessionStore.getInstance().getUser(asyncDb, userEmail, new AsyncDatabase.Callback<User>() {
+                @Override
+                public void onResult(User user) {
+                    if (isFinishing() || isDestroyed()) return;
+                    loadingView.setVisibility(View.GONE);
+                    currentUser = user;
+                    if (currentUser == null) {
+                        Log.e(TAG, "User not found for email: " + userEmail);
+                        Toast.makeText(DashboardActivity.this, "User not found", Toast.LENGTH_SHORT).show();
+                        finish();
+                        return;
+                    }
+                    Log.d(TAG, "Current user loaded: " + currentUser.getEmail());
 
-            // Set up Navigation
-            setupNavigation(savedInstanceState);
+                    try {
+                        // Set up Navigation
+                        setupNavigation(savedInstanceState);
+
+                        // Set up bottom navigation listener
+                        bottomNavigationView.setOnItemSelectedListener(DashboardActivity.this);
+                        bottomNavigationView.setEnabled(true);
+                    } catch (Exception e) {
+                        Log.e(TAG, "Error initializing dashboard: " + e.getMessage(), e);
+                        Toast.makeText(DashboardActivity.this, "Error initializing dashboard: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                        finish();
+                    }
+                }
 
-            // Set up bottom navigation listener
-            bottomNavigationView.setOnItemSelectedListener(this);
+                @Override
+                public void onError(Exception e) {
+                    Log.e(TAG, "Error loading user: " + e.getMessage(), e);
+                    if (isFinishing() || isDestroyed()) return;
+                    Toast.makeText(DashboardActivity.this, "Error initializing dashboard: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                    finish();
+                }
+            });
 
         } catch (Exception e) {
             Log.e(TAG, "Error initializing dashboard: " + e.getMessage(), e);
@@ -173,8 +200,8 @@ public class DashboardActivity extends AppCompatActivity implements NavigationBa
     protected void onDestroy() {
         try {
             super.onDestroy();
-            if (dbHelper != null) {
-                dbHelper.close();
+            if (asyncDb != null) {
+                asyncDb.release();
             }
         } catch (Exception e) {
             Log.e(TAG, "Error in onDestroy: " + e.getMessage(), e);
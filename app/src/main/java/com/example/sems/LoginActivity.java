@@ -2,14 +2,10 @@ package com.example.sems;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.view.View;
 import android.view.Window;
 import android.widget.Toast;
 import android.util.Log;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import androidx.appcompat.app.AppCompatActivity;
 
@@ -17,7 +13,7 @@ import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 
-import com.example.sems.database.DatabaseHelper;
+import com.example.sems.database.AsyncDatabase;
 import com.example.sems.models.User;
 
 public class LoginActivity extends AppCompatActivity {
@@ -26,10 +22,8 @@ public class LoginActivity extends AppCompatActivity {
     private TextInputLayout tilEmail, tilPassword;
     private TextInputEditText etEmail, etPassword;
     private MaterialButton btnLogin;
-    private DatabaseHelper dbHelper;
+    private AsyncDatabase asyncDb;
     private View rootView;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
-    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -43,18 +37,25 @@ public class LoginActivity extends AppCompatActivity {
             super.onCreate(savedInstanceState);
             
             // Initialize database off the main thread
-            executor.execute(() -> {
-                try {
-                    dbHelper = new DatabaseHelper(getApplicationContext());
+            asyncDb = AsyncDatabase.getInstance(getApplicationContext());
+            asyncDb.execute(db -> {
+                // Open the shared connection here so schema creation never runs on the UI thread
+                return db.getWritableDatabase();
+            }, new AsyncDatabase.Callback<Object>() {
+                @Override
+                public void onResult(Object result) {
                     Log.d(TAG, "Database initialized successfully");
-                } catch (Exception e) {
+                }
+
+                @Override
+                public void onError(Exception e) {
                     Log.e(TAG, "Error initializing database: " + e.getMessage(), e);
-                    mainHandler.post(() -> {
-                        Toast.makeText(LoginActivity.this, "Error initializing database", Toast.LENGTH_SHORT).show();
-                        finish();
-                    });
+                    Toast.makeText(LoginActivity.this, "Error initializing database", Toast.LENGTH_SHORT).show();
+                    finish();
                 }
             });
+            // Queued behind the warm-up; moves past years out of the hot table once a year
+            asyncDb.execute(db -> db.archivePastYears());
 
             setContentView(R.layout.activity_login);
             initializeViews();
@@ -123,44 +124,37 @@ public class LoginActivity extends AppCompatActivity {
             btnLogin.setEnabled(false);
             
             // Perform login check in background
-            executor.execute(() -> {
-                try {
-                    Log.d(TAG, "Attempting login for email: " + email);
-                    
-                    if (dbHelper == null) {
-                        throw new IllegalStateException("Database not initialized");
-                    }
-
-                    final boolean isValid = dbHelper.checkUser(email, password);
-                    final User user = isValid ? dbHelper.getUserByEmail(email) : null;
-
-                    mainHandler.post(() -> {
-                        try {
-                            if (isValid && user != null) {
-                                Log.d(TAG, "Login successful for user: " + email);
-                                
-                                Intent intent = new Intent(LoginActivity.this, DashboardActivity.class);
-                                intent.putExtra("user_email", email);
-                                intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
-                                startActivity(intent);
-                                finish();
-                            } else {
-                                Log.w(TAG, "Login failed for email: " + email);
-                                Toast.makeText(LoginActivity.this, "Invalid email or password", Toast.LENGTH_SHORT).show();
-                                btnLogin.setEnabled(true);
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error in login UI update: " + e.getMessage(), e);
-                            Toast.makeText(LoginActivity.this, "Login error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            Log.d(TAG, "Attempting login for email: " + email);
+            asyncDb.execute(db -> db.authenticate(email, password),
+                    new AsyncDatabase.Callback<User>() {
+                @Override
+                public void onResult(User user) {
+                    try {
+                        if (user != null) {
+                            Log.d(TAG, "Login successful for user: " + email);
+
+                            Intent intent = new Intent(LoginActivity.this, DashboardActivity.class);
+                            intent.putExtra("user_email", email);
+                            intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
+                            startActivity(intent);
+                            finish();
+                        } else {
+                            Log.w(TAG, "Login failed for email: " + email);
+                            Toast.makeText(LoginActivity.this, "Invalid email or password", Toast.LENGTH_SHORT).show();
                             btnLogin.setEnabled(true);
                         }
-                    });
-                } catch (Exception e) {
-                    Log.e(TAG, "Error during login attempt: " + e.getMessage(), e);
-                    mainHandler.post(() -> {
+                    } catch (Exception e) {
+                        Log.e(TAG, "Error in login UI update: " + e.getMessage(), e);
                         Toast.makeText(LoginActivity.this, "Login error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                         btnLogin.setEnabled(true);
-                    });
+                    }
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    Log.e(TAG, "Error during login attempt: " + e.getMessage(), e);
+                    Toast.makeText(LoginActivity.this, "Login error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                    btnLogin.setEnabled(true);
                 }
             });
         } catch (Exception e) {
@@ -174,9 +168,8 @@ public class LoginActivity extends AppCompatActivity {
     protected void onDestroy() {
         try {
             super.onDestroy();
-            executor.shutdown();
-            if (dbHelper != null) {
-                dbHelper.close();
+            if (asyncDb != null) {
+                asyncDb.release();
             }
         } catch (Exception e) {
             Log.e(TAG, "Error in onDestroy: " + e.getMessage(), e);
@@ -7,10 +7,12 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.sems.R;
-import com.example.sems.models.Event;
+import com.example.sems.models.EventSummary;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -18,29 +20,62 @@ import java.util.List;
 import java.util.Locale;
 
 public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHolder> {
+    // Rows are the same item when they show the same event occurrence
+    private static final DiffUtil.ItemCallback<EventSummary> DIFF_CALLBACK = new DiffUtil.ItemCallback<EventSummary>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull EventSummary oldItem, @NonNull EventSummary newItem) {
+            return oldItem.getStableId() == newItem.getStableId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull EventSummary oldItem, @NonNull EventSummary newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
     private final Context context;
-    private List<Event> events;
+    // Diffs run on a background thread; only the rows that changed are dispatched
+    private final AsyncListDiffer<EventSummary> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    // Last list handed to the differ, which appends build on while a diff is pending
+    private List<EventSummary> submitted = new ArrayList<>();
     private OnEventClickListener listener;
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMM d, yyyy", Locale.getDefault());
     private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
     private OnEventLongClickListener longClickListener;
 
     public interface OnEventClickListener {
-        void onEventClick(Event event);
+        void onEventClick(EventSummary event);
     }
 
     public interface OnEventLongClickListener {
-        void onEventLongClick(Event event);
+        void onEventLongClick(EventSummary event);
     }
 
     public EventAdapter(Context context) {
         this.context = context;
-        this.events = new ArrayList<>();
+        setHasStableIds(true);
     }
 
-    public void setEvents(List<Event> events) {
-        this.events = events;
-        notifyDataSetChanged();
+    /** Shows {@code events}, animating only the rows that were added, removed, moved or changed. */
+    public void setEvents(List<EventSummary> events) {
+        // Copy so later appends never modify the caller's list
+        submitted = new ArrayList<>(events);
+        differ.submitList(submitted);
+    }
+
+    /**
+     * Adds the next page of results to the end of the list without rebinding
+     * the rows that are already on screen.
+     */
+    public void appendEvents(List<EventSummary> page) {
+        if (page == null || page.isEmpty()) {
+            return;
+        }
+        List<EventSummary> appended = new ArrayList<>(submitted.size() + page.size());
+        appended.addAll(submitted);
+        appended.addAll(page);
+        submitted = appended;
+        differ.submitList(appended);
     }
 
     public void setOnItemClickListener(OnEventClickListener listener) {
@@ -60,17 +95,28 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
 
     @Override
     public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
-        Event event = events.get(position);
+        EventSummary event = differ.getCurrentList().get(position);
         holder.bind(event);
     }
 
     @Override
     public int getItemCount() {
-        return events.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getStableId();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        // Unique across adapters, so rows can share a RecycledViewPool with other lists
+        return R.layout.event_list_item;
     }
 
     // For compatibility with existing code
-    public void updateEvents(List<Event> events) {
+    public void updateEvents(List<EventSummary> events) {
         setEvents(events);
     }
 
@@ -90,25 +136,25 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onEventClick(events.get(position));
+                    listener.onEventClick(differ.getCurrentList().get(position));
                 }
             });
 
             itemView.setOnLongClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && longClickListener != null) {
-                    longClickListener.onEventLongClick(events.get(position));
+                    longClickListener.onEventLongClick(differ.getCurrentList().get(position));
                     return true; // Consume the long click
                 }
                 return false;
             });
         }
 
-        void bind(Event event) {
+        void bind(EventSummary event) {
             titleText.setText(event.getTitle());
-            dateText.setText(dateFormat.format(event.getStartDate()));
-            String timeRange = timeFormat.format(event.getStartDate()) + " - " + 
-                             timeFormat.format(event.getEndDate());
+            dateText.setText(dateFormat.format(event.getStartMillis()));
+            String timeRange = timeFormat.format(event.getStartMillis()) + " - " + 
+                             timeFormat.format(event.getEndMillis());
             timeText.setText(timeRange);
             locationText.setText(event.getLocation());
         }
@@ -0,0 +1,43 @@
+package com.example.sems.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Requests the next page once the user scrolls within {@code prefetchDistance}
+ * rows of the end of the list. The load is posted rather than run inside the
+ * scroll callback, so adapters can safely insert rows from it.
+ */
+public abstract class PaginationScrollListener extends RecyclerView.OnScrollListener {
+    private final LinearLayoutManager layoutManager;
+    private final int prefetchDistance;
+    private boolean loadPosted;
+
+    public PaginationScrollListener(LinearLayoutManager layoutManager, int prefetchDistance) {
+        this.layoutManager = layoutManager;
+        this.prefetchDistance = prefetchDistance;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        // Only react to the user scrolling down, not to layout passes
+        if (dy <= 0 || loadPosted || isLoading() || isLastPage()) {
+            return;
+        }
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible >= layoutManager.getItemCount() - prefetchDistance) {
+            loadPosted = true;
+            recyclerView.post(() -> {
+                loadPosted = false;
+                loadMoreItems();
+            });
+        }
+    }
+
+    protected abstract void loadMoreItems();
+
+    public abstract boolean isLoading();
+
+    public abstract boolean isLastPage();
+}
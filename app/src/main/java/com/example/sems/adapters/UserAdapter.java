@@ -6,16 +6,38 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.sems.R;
 import com.example.sems.models.User;
 import com.google.android.material.button.MaterialButton;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder> {
-    private List<User> users;
+    // Same account by id; a row needs rebinding only when a field it shows changed
+    private static final DiffUtil.ItemCallback<User> DIFF_CALLBACK = new DiffUtil.ItemCallback<User>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull User oldItem, @NonNull User newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull User oldItem, @NonNull User newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getEmail(), newItem.getEmail())
+                    && Objects.equals(oldItem.getRole(), newItem.getRole());
+        }
+    };
+
+    // Diffs run on a background thread; only the rows that changed are dispatched
+    private final AsyncListDiffer<User> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    // Last list handed to the differ, which appends build on while a diff is pending
+    private List<User> submitted = new ArrayList<>();
     private OnUserActionListener listener;
 
     public interface OnUserActionListener {
@@ -24,8 +46,9 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
     }
 
     public UserAdapter(List<User> users, OnUserActionListener listener) {
-        this.users = users;
         this.listener = listener;
+        setHasStableIds(true);
+        updateUsers(users);
     }
 
     @NonNull
@@ -38,23 +61,52 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull UserViewHolder holder, int position) {
-        User user = users.get(position);
+        User user = differ.getCurrentList().get(position);
         holder.tvUserName.setText(user.getName());
         holder.tvUserEmail.setText(user.getEmail());
         holder.tvUserRole.setText(user.getRole().toUpperCase());
 
-        holder.btnEdit.setOnClickListener(v -> listener.onEditUser(user));
-        holder.btnDelete.setOnClickListener(v -> listener.onDeleteUser(user));
+        // Look the row up on click: an equal-looking diff keeps the holder bound to an older copy
+        holder.btnEdit.setOnClickListener(v -> {
+            int current = holder.getBindingAdapterPosition();
+            if (current != RecyclerView.NO_POSITION) {
+                listener.onEditUser(differ.getCurrentList().get(current));
+            }
+        });
+        holder.btnDelete.setOnClickListener(v -> {
+            int current = holder.getBindingAdapterPosition();
+            if (current != RecyclerView.NO_POSITION) {
+                listener.onDeleteUser(differ.getCurrentList().get(current));
+            }
+        });
     }
 
     @Override
     public int getItemCount() {
-        return users.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
     }
 
+    /** Shows {@code newUsers}, animating only the rows that were added, removed, moved or changed. */
     public void updateUsers(List<User> newUsers) {
-        this.users = newUsers;
-        notifyDataSetChanged();
+        submitted = new ArrayList<>(newUsers);
+        differ.submitList(submitted);
+    }
+
+    /** Adds the next page of the directory below the rows already shown. */
+    public void appendUsers(List<User> page) {
+        if (page == null || page.isEmpty()) {
+            return;
+        }
+        List<User> appended = new ArrayList<>(submitted.size() + page.size());
+        appended.addAll(submitted);
+        appended.addAll(page);
+        submitted = appended;
+        differ.submitList(appended);
     }
 
     static class UserViewHolder extends RecyclerView.ViewHolder {
@@ -7,26 +7,45 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.sems.R;
-import com.example.sems.database.DatabaseHelper;
 import com.example.sems.interfaces.OnDateClickListener;
 
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.Date;
+import java.util.Collections;
 import java.util.List;
 
 public class WeekViewAdapter extends RecyclerView.Adapter<WeekViewAdapter.WeekDayViewHolder> {
-    private final List<LocalDate> weekDays;
+    // Rebind payload for a selection change: only the highlight is redrawn
+    private static final Object PAYLOAD_SELECTION = new Object();
+
+    private List<LocalDate> weekDays = Collections.emptyList();
+    private int[] eventCounts = new int[0];
     private final OnDateClickListener listener;
-    private final DatabaseHelper databaseHelper;
-    private LocalDate selectedDate = LocalDate.now();
+    // Resolved once per week shown rather than on every bind
+    private LocalDate today = LocalDate.now();
+    private LocalDate selectedDate = today;
     private static final DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("EEE\nd");
 
-    public WeekViewAdapter(List<LocalDate> weekDays, OnDateClickListener listener, DatabaseHelper databaseHelper) {
-        this.weekDays = weekDays;
+    public WeekViewAdapter(OnDateClickListener listener) {
         this.listener = listener;
-        this.databaseHelper = databaseHelper;
+    }
+
+    /**
+     * Shows another week, rebinding the existing cells in place.
+     *
+     * @param eventCounts per-day event counts parallel to {@code weekDays}, as returned by
+     *                    DatabaseHelper.getEventCountsByDay for the same range
+     */
+    public void setWeek(List<LocalDate> weekDays, int[] eventCounts) {
+        boolean sameSize = weekDays.size() == this.weekDays.size();
+        this.weekDays = weekDays;
+        this.eventCounts = eventCounts;
+        today = LocalDate.now();
+        if (sameSize) {
+            notifyItemRangeChanged(0, weekDays.size());
+        } else {
+            notifyDataSetChanged();
+        }
     }
 
     @NonNull
@@ -40,7 +59,40 @@ public class WeekViewAdapter extends RecyclerView.Adapter<WeekViewAdapter.WeekDa
     @Override
     public void onBindViewHolder(@NonNull WeekDayViewHolder holder, int position) {
         LocalDate date = weekDays.get(position);
-        holder.bind(date);
+        int count = position < eventCounts.length ? eventCounts[position] : 0;
+        holder.bind(date, count);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull WeekDayViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && onlySelection(payloads)) {
+            holder.bindSelection(weekDays.get(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    private static boolean onlySelection(List<Object> payloads) {
+        for (Object payload : payloads) {
+            if (payload != PAYLOAD_SELECTION) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Moves the highlight by rebinding just the old and new cells
+    private void select(int position) {
+        LocalDate date = weekDays.get(position);
+        if (date.equals(selectedDate)) {
+            return;
+        }
+        int previous = weekDays.indexOf(selectedDate);
+        selectedDate = date;
+        if (previous >= 0) {
+            notifyItemChanged(previous, PAYLOAD_SELECTION);
+        }
+        notifyItemChanged(position, PAYLOAD_SELECTION);
     }
 
     @Override
@@ -48,6 +100,12 @@ public class WeekViewAdapter extends RecyclerView.Adapter<WeekViewAdapter.WeekDa
         return weekDays.size();
     }
 
+    @Override
+    public int getItemViewType(int position) {
+        // Unique across adapters, so cells can share a RecycledViewPool with other lists
+        return R.layout.week_day_item;
+    }
+
     class WeekDayViewHolder extends RecyclerView.ViewHolder {
         private final TextView dayText;
         private final TextView eventCount;
@@ -58,23 +116,30 @@ public class WeekViewAdapter extends RecyclerView.Adapter<WeekViewAdapter.WeekDa
             dayText = itemView.findViewById(R.id.dayText);
             eventCount = itemView.findViewById(R.id.eventCount);
             dayContainer = itemView.findViewById(R.id.dayContainer);
+            itemView.setOnClickListener(v -> {
+                int position = getBindingAdapterPosition();
+                if (position == RecyclerView.NO_POSITION) {
+                    return;
+                }
+                select(position);
+                listener.onDateClick(weekDays.get(position));
+            });
         }
 
-        void bind(LocalDate date) {
+        void bind(LocalDate date, int count) {
             dayText.setText(date.format(dayFormatter));
-            
-            // Convert LocalDate to Date for database query
-            Date queryDate = Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
-            int count = databaseHelper.getEventCountForDate(queryDate);
-            
+
             if (count > 0) {
                 eventCount.setVisibility(View.VISIBLE);
                 eventCount.setText(String.valueOf(count));
             } else {
                 eventCount.setVisibility(View.GONE);
             }
+            bindSelection(date);
+        }
 
-            boolean isToday = date.equals(LocalDate.now());
+        void bindSelection(LocalDate date) {
+            boolean isToday = date.equals(today);
             boolean isSelected = date.equals(selectedDate);
             
             if (isToday) {
@@ -90,12 +155,6 @@ public class WeekViewAdapter extends RecyclerView.Adapter<WeekViewAdapter.WeekDa
                 dayText.setTextColor(itemView.getContext().getColor(R.color.black));
                 eventCount.setTextColor(itemView.getContext().getColor(R.color.black));
             }
-
-            itemView.setOnClickListener(v -> {
-                selectedDate = date;
-                listener.onDateClick(date);
-                notifyDataSetChanged();
-            });
         }
     }
 } 
\ No newline at end of file
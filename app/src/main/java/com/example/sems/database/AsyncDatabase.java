@@ -0,0 +1,99 @@
+package com.example.sems.database;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs {@link DatabaseHelper} calls on a dedicated I/O thread and delivers the
+ * results on the main thread, so screens never query from the UI thread.
+ * Any public helper method can be called through {@link #execute}:
+ * <pre>
+ *     asyncDb.execute(db -&gt; db.getAllUsers(), users -&gt; adapter.setUsers(users));
+ * </pre>
+ * Obtain with {@link #getInstance(Context)} and balance with {@link #release()},
+ * exactly like the helper it wraps.
+ */
+public final class AsyncDatabase {
+    private static final String TAG = "AsyncDatabase";
+
+    /** Work to run against the database on the I/O thread. */
+    public interface Query<T> {
+        T run(DatabaseHelper db) throws Exception;
+    }
+
+    /** Receives the outcome of a {@link Query} on the main thread. */
+    public interface Callback<T> {
+        void onResult(T result);
+
+        default void onError(Exception e) {
+            Log.e(TAG, "Database task failed: " + e.getMessage(), e);
+        }
+    }
+
+    // One thread for all database work: SQLite serialises writers anyway and a
+    // single queue keeps reads ordered after the writes that preceded them
+    private static final ExecutorService IO_EXECUTOR = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "sems-db-io"));
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final DatabaseHelper helper;
+
+    private AsyncDatabase(DatabaseHelper helper) {
+        this.helper = helper;
+    }
+
+    /** Takes a reference on the shared {@link DatabaseHelper}; release it from onDestroy. */
+    public static AsyncDatabase getInstance(Context context) {
+        return new AsyncDatabase(DatabaseHelper.getInstance(context));
+    }
+
+    public void release() {
+        helper.release();
+    }
+
+    public <T> void execute(Query<T> query, Callback<T> callback) {
+        // Hold the connection open until the task has run, even if the screen
+        // that queued it releases its own reference first
+        helper.retain();
+        IO_EXECUTOR.execute(() -> {
+            try {
+                T result = query.run(helper);
+                if (callback != null) {
+                    MAIN_HANDLER.post(() -> callback.onResult(result));
+                }
+            } catch (Exception e) {
+                if (callback != null) {
+                    MAIN_HANDLER.post(() -> callback.onError(e));
+                } else {
+                    Log.e(TAG, "Database task failed: " + e.getMessage(), e);
+                }
+            } finally {
+                helper.release();
+            }
+        });
+    }
+
+    /**
+     * Binds a query to the tables it reads so that repeated refreshes cost nothing
+     * until one of them is written; see {@link TrackedQuery}. The {@code key} names
+     * the query across screen instances and must be unique per query shape.
+     */
+    public <P, T> TrackedQuery<P, T> track(String key, TrackedQuery.Body<P, T> body, Callback<T> callback,
+                                           String... tables) {
+        return new TrackedQuery<>(this, helper.getInvalidationTracker(), key, body, callback, tables);
+    }
+
+    InvalidationTracker getInvalidationTracker() {
+        return helper.getInvalidationTracker();
+    }
+
+    /** Fire-and-forget variant for writes whose result the caller does not need. */
+    public void execute(Query<?> query) {
+        execute(query, null);
+    }
+}
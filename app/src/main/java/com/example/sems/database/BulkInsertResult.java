@@ -0,0 +1,61 @@
+package com.example.sems.database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of {@link DatabaseHelper#addEvents}: the row id assigned to each input
+ * position (-1 where the row was rejected) and the reason for every rejection.
+ */
+public class BulkInsertResult {
+
+    /** A row that could not be inserted, identified by its position in the input. */
+    public static class Failure {
+        private final int index;
+        private final String reason;
+
+        Failure(int index, String reason) {
+            this.index = index;
+            this.reason = reason;
+        }
+
+        public int getIndex() { return index; }
+
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return "Failure{index=" + index + ", reason='" + reason + "'}";
+        }
+    }
+
+    private final long[] ids;
+    private final List<Failure> failures = new ArrayList<>();
+    private int insertedCount;
+
+    BulkInsertResult(int size) {
+        ids = new long[size];
+        Arrays.fill(ids, -1);
+    }
+
+    void recordInsert(int index, long id) {
+        ids[index] = id;
+        insertedCount++;
+    }
+
+    void recordFailure(int index, String reason) {
+        ids[index] = -1;
+        failures.add(new Failure(index, reason));
+    }
+
+    /** Row id for the event at {@code index} in the input, or -1 if it was not inserted. */
+    public long getId(int index) { return ids[index]; }
+
+    public int getInsertedCount() { return insertedCount; }
+
+    public List<Failure> getFailures() { return Collections.unmodifiableList(failures); }
+
+    public boolean hasFailures() { return !failures.isEmpty(); }
+}
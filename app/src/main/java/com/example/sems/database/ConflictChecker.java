@@ -0,0 +1,69 @@
+package com.example.sems.database;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.sems.models.ScheduleConflicts;
+
+/**
+ * Looks up scheduling conflicts while the user is still editing an event. Each
+ * {@link #check} replaces the pending one and only runs once the input has been
+ * quiet for {@link #DEBOUNCE_MILLIS}; the lookup itself goes through
+ * {@link AsyncDatabase}, and a result is delivered only if no newer check was
+ * requested in the meantime. Use from the main thread and {@link #cancel()} it
+ * when the screen goes away.
+ */
+public final class ConflictChecker {
+    public static final long DEBOUNCE_MILLIS = 300;
+
+    private final AsyncDatabase asyncDb;
+    private final AsyncDatabase.Callback<ScheduleConflicts> callback;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private Runnable pending;
+    // Only the result of the most recent check is delivered
+    private int generation;
+
+    public ConflictChecker(AsyncDatabase asyncDb, AsyncDatabase.Callback<ScheduleConflicts> callback) {
+        this.asyncDb = asyncDb;
+        this.callback = callback;
+    }
+
+    /**
+     * Schedules a lookup of events overlapping [start, end) that share the organizer
+     * or location. {@code excludeId} is the event being edited, or 0 for a new one.
+     */
+    public void check(String organizer, String location, long start, long end, int excludeId) {
+        cancel();
+        int requested = generation;
+        pending = () -> {
+            pending = null;
+            asyncDb.execute(db -> db.findConflicts(organizer, location, start, end, excludeId),
+                    new AsyncDatabase.Callback<ScheduleConflicts>() {
+                        @Override
+                        public void onResult(ScheduleConflicts result) {
+                            if (requested == generation) {
+                                callback.onResult(result);
+                            }
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            if (requested == generation) {
+                                callback.onError(e);
+                            }
+                        }
+                    });
+        };
+        handler.postDelayed(pending, DEBOUNCE_MILLIS);
+    }
+
+    /** Drops the pending check and any result still in flight. */
+    public void cancel() {
+        generation++;
+        if (pending != null) {
+            handler.removeCallbacks(pending);
+            pending = null;
+        }
+    }
+}
@@ -3,15 +3,41 @@ package com.example.sems.database;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 
+import androidx.annotation.VisibleForTesting;
+
+import com.example.sems.models.DashboardSnapshot;
+import com.example.sems.models.MonthSummary;
+import com.example.sems.models.RecurrenceRule;
+import com.example.sems.models.ScheduleConflicts;
 import com.example.sems.models.User;
 import com.example.sems.models.Event;
-
+import com.example.sems.models.EventSummary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Date;
 import java.util.Calendar;
 import java.text.SimpleDateFormat;
@@ -20,7 +46,7 @@ import java.text.ParseException;
 
 public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String DATABASE_NAME = "SEMS.db";
-    private static final int DATABASE_VERSION = 2;
+    static final int DATABASE_VERSION = 10;
 
     // Table name and columns
     private static final String TABLE_USERS = "users";
@@ -33,6 +59,9 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String COLUMN_POSITION = "position";
     private static final String COLUMN_ROLE = "role";
     private static final String COLUMN_IS_ACTIVE = "is_active";
+    // Every user column but the password, which stays in the database
+    private static final String[] USER_COLUMNS = {COLUMN_ID, COLUMN_EMAIL, COLUMN_NAME, COLUMN_PHONE,
+            COLUMN_DEPARTMENT, COLUMN_POSITION, COLUMN_ROLE, COLUMN_IS_ACTIVE};
 
     // Add these constants to the existing DatabaseHelper class
     private static final String TABLE_EVENTS = "events";
@@ -44,6 +73,44 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String COLUMN_EVENT_LOCATION = "location";
     private static final String COLUMN_EVENT_ORGANIZER = "organizer";
     private static final String COLUMN_EVENT_IS_ACTIVE = "is_active";
+    // Normalized location used for conflict lookups; see normalizeLocation
+    private static final String COLUMN_EVENT_LOCATION_KEY = "location_key";
+
+    // Full-text index over events, maintained by triggers (see DatabaseMigrations)
+    private static final String TABLE_EVENTS_FTS = "events_fts";
+    // Rows committed per transaction by addEvents unless the caller chooses otherwise
+    public static final int DEFAULT_BULK_CHUNK_SIZE = 500;
+    // Stays below SQLITE_MAX_VARIABLE_NUMBER on older SQLite builds
+    private static final int MAX_QUERY_ARGS = 900;
+
+    // R*Tree over [start_date, end_date]; absent where the rtree module is not compiled in
+    private static final String TABLE_EVENTS_SPAN = "events_span";
+
+    // Recurring series: one rule row per series, occurrences are expanded on read
+    private static final String TABLE_RECURRENCE = "event_recurrence";
+    private static final String TABLE_RECURRENCE_EXCEPTIONS = "event_recurrence_exceptions";
+    // How far past its start date the upcoming list expands recurring series
+    private static final long UPCOMING_SERIES_HORIZON_MILLIS = 30L * 24 * 60 * 60 * 1000;
+
+    // Per-month presence masks and counts; emptied by triggers on event writes (see DatabaseMigrations)
+    private static final String TABLE_MONTH_SUMMARIES = "month_summaries";
+
+    // Most conflicting events reported per organizer or location
+    public static final int MAX_CONFLICTS = 5;
+
+    private static final Comparator<Event> START_DATE_ORDER = Comparator.comparingLong(Event::getStartMillis);
+    private static final Comparator<EventSummary> SUMMARY_START_ORDER =
+            Comparator.comparingLong(EventSummary::getStartMillis);
+    private static final String[] EVENT_PROJECTION = EventRowMapper.EVENT_COLUMNS.split(", ");
+
+    // Trigger-maintained row counts (see DatabaseMigrations); keys below
+    private static final String TABLE_COUNTERS = "dashboard_counters";
+    private static final String COUNTER_USERS = "users";
+    private static final String COUNTER_EVENTS = "events";
+    private static final String COUNTER_EVENTS_BY_ORGANIZER_PREFIX = "events:";
+
+    // Relative weight of title, description and location hits when ranking search results
+    private static final double[] SEARCH_COLUMN_WEIGHTS = {10.0, 1.0, 5.0};
 
     // Create table query
     private static final String CREATE_USERS_TABLE = "CREATE TABLE " + TABLE_USERS + "("
@@ -71,16 +138,120 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             + "FOREIGN KEY(" + COLUMN_EVENT_ORGANIZER + ") REFERENCES " + TABLE_USERS + "(" + COLUMN_EMAIL + ")"
             + ")";
 
-    public DatabaseHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
-        // Enable foreign key support
-        try {
-            SQLiteDatabase db = getWritableDatabase();
-            if (!db.isReadOnly()) {
-                db.execSQL("PRAGMA foreign_keys=ON;");
+    // Process-wide instance shared by every screen; see getInstance/release
+    private static DatabaseHelper instance;
+    private static int referenceCount;
+
+    // Per-table write versions consulted by TrackedQuery
+    private final InvalidationTracker invalidationTracker = new InvalidationTracker();
+    // Per-day event lists and counts, invalidated by the event write methods
+    private final EventCache eventCache = new EventCache();
+
+    // Archive files for past years' events, attached in onOpen
+    private final EventPartitions partitions = new EventPartitions();
+
+    // Whether events_span exists; resolved lazily
+    private volatile Boolean hasSpanIndex;
+    // Longest known event duration, bounding the fallback overlap scan; -1 until computed
+    private long maxEventSpan = -1;
+    private final Object maxEventSpanLock = new Object();
+
+    // Whether events_fts was created as FTS5 (true) or the FTS4 fallback (false); resolved lazily
+    private volatile Boolean ftsIsFts5;
+
+    // A recurring series: its first occurrence, rule, and when its last occurrence ends
+    private static final class Series {
+        final Event first;
+        final RecurrenceRule rule;
+        final long duration;
+        final long lastEnd;
+
+        Series(Event first, RecurrenceRule rule) {
+            this.first = first;
+            this.rule = rule;
+            long firstStart = first.getStartMillis();
+            this.duration = Math.max(0, first.getEndMillis() - firstStart);
+            long lastStart = rule.lastOccurrenceStart(firstStart, ZoneId.systemDefault());
+            this.lastEnd = lastStart == Long.MAX_VALUE ? Long.MAX_VALUE : lastStart + duration;
+        }
+    }
+
+    // Every recurring series, loaded on first use and dropped whenever one changes
+    private List<Series> seriesCache;
+    private final Object seriesLock = new Object();
+
+    private DatabaseHelper(Context context) {
+        this(context, DATABASE_NAME);
+    }
+
+    @VisibleForTesting
+    DatabaseHelper(Context context, String databaseName) {
+        super(context, databaseName, null, DATABASE_VERSION);
+    }
+
+    /**
+     * Returns the shared helper and takes a reference on it. Every call must be
+     * balanced by {@link #release()}, typically from the caller's onDestroy.
+     * The underlying connection is opened lazily on first use and stays open
+     * while at least one reference is held.
+     */
+    public static synchronized DatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new DatabaseHelper(context.getApplicationContext());
+        }
+        referenceCount++;
+        return instance;
+    }
+
+    // Keeps the connection open while queued async work runs; see AsyncDatabase
+    void retain() {
+        synchronized (DatabaseHelper.class) {
+            referenceCount++;
+        }
+    }
+
+    public InvalidationTracker getInvalidationTracker() {
+        return invalidationTracker;
+    }
+
+    public EventCache getEventCache() {
+        return eventCache;
+    }
+
+    /**
+     * Drops a reference taken by {@link #getInstance(Context)}. The connection is
+     * closed once the last reference is released; a later getInstance reopens it.
+     */
+    public void release() {
+        synchronized (DatabaseHelper.class) {
+            if (referenceCount <= 0) {
+                Log.w("DatabaseHelper", "release() called without a matching getInstance()");
+                return;
             }
+            referenceCount--;
+            if (referenceCount == 0) {
+                Log.d("DatabaseHelper", "Last reference released, closing database");
+                close();
+            }
+        }
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // Runs for every connection the framework opens, so foreign keys are
+        // always enforced without re-running the PRAGMA per query
+        db.setForeignKeyConstraintsEnabled(true);
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        try {
+            partitions.attachExisting(db);
         } catch (Exception e) {
-            Log.e("DatabaseHelper", "Error enabling foreign keys: " + e.getMessage(), e);
+            // History before the hot years is missing from queries, but the app still works
+            Log.e("DatabaseHelper", "Error attaching event partitions: " + e.getMessage(), e);
         }
     }
 
@@ -113,6 +284,9 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 throw e;
             }
 
+            // Bring the base schema up to date through the same steps an upgrade takes
+            DatabaseMigrations.migrate(db, DatabaseMigrations.BASE_VERSION, DATABASE_VERSION);
+
             // Create default admin user
             try {
                 createDefaultAdmin(db);
@@ -131,16 +305,15 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        try {
-            Log.d("DatabaseHelper", "Upgrading database from version " + oldVersion + " to " + newVersion);
-            // Drop existing tables
-            db.execSQL("DROP TABLE IF EXISTS " + TABLE_EVENTS);
-            db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
-            // Recreate tables
+        Log.d("DatabaseHelper", "Upgrading database from version " + oldVersion + " to " + newVersion);
+        if (oldVersion < DatabaseMigrations.BASE_VERSION) {
+            // No migration history before the base schema, so rebuild from scratch
+            Log.w("DatabaseHelper", "Schema version " + oldVersion + " is too old to migrate, recreating tables");
             onCreate(db);
-        } catch (Exception e) {
-            Log.e("DatabaseHelper", "Error upgrading database: " + e.getMessage(), e);
+            return;
         }
+        // Let failures propagate so SQLiteOpenHelper rolls the whole upgrade back
+        DatabaseMigrations.migrate(db, oldVersion, newVersion);
     }
 
     private void createDefaultAdmin(SQLiteDatabase db) {
@@ -176,12 +349,16 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         values.put(COLUMN_ROLE, user.getRole());
         values.put(COLUMN_IS_ACTIVE, user.isActive() ? 1 : 0);
 
-        return db.insert(TABLE_USERS, null, values);
+        long id = db.insert(TABLE_USERS, null, values);
+        if (id != -1) {
+            invalidationTracker.notifyChanged(TABLE_USERS);
+        }
+        return id;
     }
 
     public User getUser(int id) {
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.query(TABLE_USERS, null, COLUMN_ID + "=?",
+        Cursor cursor = db.query(TABLE_USERS, USER_COLUMNS, COLUMN_ID + "=?",
                 new String[]{String.valueOf(id)}, null, null, null);
 
         User user = null;
@@ -194,7 +371,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
     public User getUserByEmail(String email) {
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.query(TABLE_USERS, null, COLUMN_EMAIL + "=?",
+        Cursor cursor = db.query(TABLE_USERS, USER_COLUMNS, COLUMN_EMAIL + "=?",
                 new String[]{email}, null, null, null);
 
         User user = null;
@@ -205,21 +382,56 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         return user;
     }
 
+    /** Every user ordered by name, without passwords. Prefer {@link #getUsersPage} for lists. */
     public List<User> getAllUsers() {
-        List<User> userList = new ArrayList<>();
-        String selectQuery = "SELECT * FROM " + TABLE_USERS;
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(selectQuery, null);
+        return queryUsers(null, null, null);
+    }
 
-        if (cursor.moveToFirst()) {
-            do {
+    /**
+     * Returns one page of the user directory ordered by (name, id), without passwords.
+     * Pass {@code null} as {@code after} for the first page and the last user of the
+     * previous page to fetch the next one; each page is a range scan of
+     * idx_users_name_id, so its cost does not grow with the page number.
+     */
+    public List<User> getUsersPage(User after, int pageSize) {
+        if (after == null) {
+            return queryUsers(null, null, String.valueOf(pageSize));
+        }
+        String name = after.getName() != null ? after.getName() : "";
+        return queryUsers(COLUMN_NAME + " > ? OR (" + COLUMN_NAME + " = ? AND " + COLUMN_ID + " > ?)",
+                new String[]{name, name, String.valueOf(after.getId())}, String.valueOf(pageSize));
+    }
+
+    private List<User> queryUsers(String selection, String[] selectionArgs, String limit) {
+        List<User> userList = new ArrayList<>();
+        Cursor cursor = null;
+        try {
+            cursor = getReadableDatabase().query(TABLE_USERS, USER_COLUMNS, selection, selectionArgs,
+                    null, null, COLUMN_NAME + ", " + COLUMN_ID, limit);
+            while (cursor.moveToNext()) {
                 userList.add(cursorToUser(cursor));
-            } while (cursor.moveToNext());
+            }
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error getting users: " + e.getMessage(), e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
         }
-        cursor.close();
         return userList;
     }
 
+    /** Number of users with the given role, counted from idx_users_role. */
+    public int countUsersByRole(String role) {
+        Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT COUNT(*) FROM " + TABLE_USERS + " WHERE " + COLUMN_ROLE + " = ?", new String[]{role});
+        try {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
     public int updateUser(User user) {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = new ContentValues();
@@ -230,14 +442,51 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         values.put(COLUMN_POSITION, user.getPosition());
         values.put(COLUMN_ROLE, user.getRole());
         values.put(COLUMN_IS_ACTIVE, user.isActive() ? 1 : 0);
+        // Directory rows carry no password; an empty one keeps the stored password
+        if (user.getPassword() != null && !user.getPassword().isEmpty()) {
+            values.put(COLUMN_PASSWORD, user.getPassword());
+        }
 
-        return db.update(TABLE_USERS, values, COLUMN_ID + "=?",
+        int rows = db.update(TABLE_USERS, values, COLUMN_ID + "=?",
                 new String[]{String.valueOf(user.getId())});
+        if (rows > 0) {
+            SessionStore.getInstance().onUserUpdated(this, user.getId());
+            invalidationTracker.notifyChanged(TABLE_USERS);
+        }
+        return rows;
     }
 
     public void deleteUser(int id) {
         SQLiteDatabase db = this.getWritableDatabase();
-        db.delete(TABLE_USERS, COLUMN_ID + "=?", new String[]{String.valueOf(id)});
+        if (db.delete(TABLE_USERS, COLUMN_ID + "=?", new String[]{String.valueOf(id)}) > 0) {
+            SessionStore.getInstance().onUserDeleted(id);
+            invalidationTracker.notifyChanged(TABLE_USERS);
+        }
+    }
+
+    /**
+     * Checks the credentials and loads the account, without its password, in one
+     * query. On success the user becomes the {@link SessionStore} snapshot.
+     *
+     * @return the active user with this email and password, or null
+     */
+    public User authenticate(String email, String password) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.query(TABLE_USERS, USER_COLUMNS,
+                COLUMN_EMAIL + "=? AND " + COLUMN_PASSWORD + "=? AND " + COLUMN_IS_ACTIVE + "=1",
+                new String[]{email, password}, null, null, null);
+        User user = null;
+        try {
+            if (cursor.moveToFirst()) {
+                user = cursorToUser(cursor);
+            }
+        } finally {
+            cursor.close();
+        }
+        if (user != null) {
+            SessionStore.getInstance().setCurrentUser(user);
+        }
+        return user;
     }
 
     public boolean checkUser(String email, String password) {
@@ -251,10 +500,11 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     }
 
     private User cursorToUser(Cursor cursor) {
+        int passwordIndex = cursor.getColumnIndex(COLUMN_PASSWORD);
         return new User(
             cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_ID)),
             cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EMAIL)),
-            cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_PASSWORD)),
+            passwordIndex >= 0 ? cursor.getString(passwordIndex) : null,
             cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_NAME)),
             cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_PHONE)),
             cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_DEPARTMENT)),
@@ -271,11 +521,6 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         
         try {
             db = this.getWritableDatabase();
-            
-            // Enable foreign keys
-            db.execSQL("PRAGMA foreign_keys=ON");
-            
-            Log.d("DatabaseHelper", "Adding event: " + event.toString());
 
             // Validate event data
             if (!event.isValid()) {
@@ -287,8 +532,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             String[] columns = new String[]{COLUMN_EMAIL};
             String selection = COLUMN_EMAIL + "=? AND " + COLUMN_IS_ACTIVE + "=1";
             String[] selectionArgs = new String[]{event.getOrganizer()};
-            
-            Log.d("DatabaseHelper", "Checking organizer existence: " + event.getOrganizer());
+
             Cursor cursor = db.query(TABLE_USERS, columns, selection, selectionArgs, null, null, null);
             
             if (cursor == null || !cursor.moveToFirst()) {
@@ -297,26 +541,26 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 return -1;
             }
             cursor.close();
-            Log.d("DatabaseHelper", "Organizer validation passed");
 
             ContentValues values = new ContentValues();
             values.put(COLUMN_EVENT_TITLE, event.getTitle());
             values.put(COLUMN_EVENT_DESCRIPTION, event.getDescription());
-            values.put(COLUMN_EVENT_START_DATE, event.getStartDate() != null ? event.getStartDate().getTime() : 0);
-            values.put(COLUMN_EVENT_END_DATE, event.getEndDate() != null ? event.getEndDate().getTime() : 0);
+            values.put(COLUMN_EVENT_START_DATE, event.getStartMillis());
+            values.put(COLUMN_EVENT_END_DATE, event.getEndMillis());
             values.put(COLUMN_EVENT_LOCATION, event.getLocation());
+            values.put(COLUMN_EVENT_LOCATION_KEY, normalizeLocation(event.getLocation()));
             values.put(COLUMN_EVENT_ORGANIZER, event.getOrganizer());
             values.put(COLUMN_EVENT_IS_ACTIVE, event.isActive() ? 1 : 0);
 
-            Log.d("DatabaseHelper", "Prepared values for database insert");
-
             // Begin transaction
             db.beginTransaction();
             try {
                 id = db.insertOrThrow(TABLE_EVENTS, null, values);
                 if (id != -1) {
                     db.setTransactionSuccessful();
-                    Log.d("DatabaseHelper", "Event created successfully with ID: " + id);
+                    noteEventSpan(event);
+                    eventCache.invalidate(event);
+                    invalidationTracker.notifyChanged(TABLE_EVENTS);
                 } else {
                     Log.e("DatabaseHelper", "Failed to insert event into database");
                 }
@@ -334,77 +578,279 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         }
     }
 
-    public List<Event> getAllEvents() {
-        List<Event> eventList = new ArrayList<>();
-        SQLiteDatabase db = null;
-        Cursor cursor = null;
-        
-        try {
-            db = this.getReadableDatabase();
-            String selectQuery = "SELECT * FROM " + TABLE_EVENTS + " ORDER BY " + COLUMN_EVENT_START_DATE + " ASC";
-            
-            cursor = db.rawQuery(selectQuery, null);
-            Log.d("DatabaseHelper", "Found " + cursor.getCount() + " events in database");
+    public BulkInsertResult addEvents(Collection<Event> events) {
+        return addEvents(events, DEFAULT_BULK_CHUNK_SIZE);
+    }
 
-            if (cursor.moveToFirst()) {
-                do {
-                    try {
-                        Event event = new Event(
-                            cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ID)),
-                            cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_TITLE)),
-                            cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_DESCRIPTION)),
-                            new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_START_DATE))),
-                            new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_END_DATE))),
-                            cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_LOCATION)),
-                            cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ORGANIZER)),
-                            cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_IS_ACTIVE)) == 1
-                        );
-                        eventList.add(event);
-                    } catch (Exception e) {
-                        Log.e("DatabaseHelper", "Error creating event from cursor: " + e.getMessage(), e);
+    /**
+     * Inserts many events through one compiled statement, committing every
+     * {@code chunkSize} rows. Rows that fail validation, name an unknown or inactive
+     * organizer, or violate a constraint are reported in the result; the rest of the
+     * batch still goes in.
+     */
+    public BulkInsertResult addEvents(Collection<Event> events, int chunkSize) {
+        List<Event> batch = new ArrayList<>(events);
+        BulkInsertResult result = new BulkInsertResult(batch.size());
+        if (batch.isEmpty()) {
+            return result;
+        }
+        if (chunkSize <= 0) {
+            chunkSize = DEFAULT_BULK_CHUNK_SIZE;
+        }
+
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        Set<String> organizers = new HashSet<>();
+        for (Event event : batch) {
+            organizers.add(event.getOrganizer());
+        }
+        Set<String> activeOrganizers = findActiveOrganizers(db, organizers);
+
+        SQLiteStatement insert = db.compileStatement("INSERT INTO " + TABLE_EVENTS + " ("
+                + COLUMN_EVENT_TITLE + ", " + COLUMN_EVENT_DESCRIPTION + ", "
+                + COLUMN_EVENT_START_DATE + ", " + COLUMN_EVENT_END_DATE + ", "
+                + COLUMN_EVENT_LOCATION + ", " + COLUMN_EVENT_ORGANIZER + ", "
+                + COLUMN_EVENT_IS_ACTIVE + ", " + COLUMN_EVENT_LOCATION_KEY
+                + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        try {
+            for (int chunkStart = 0; chunkStart < batch.size(); chunkStart += chunkSize) {
+                int chunkEnd = Math.min(chunkStart + chunkSize, batch.size());
+                db.beginTransaction();
+                try {
+                    for (int i = chunkStart; i < chunkEnd; i++) {
+                        insertBulkRow(insert, batch.get(i), i, activeOrganizers, result);
                     }
-                } while (cursor.moveToNext());
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        } finally {
+            insert.close();
+            if (result.getInsertedCount() > 0) {
+                invalidationTracker.notifyChanged(TABLE_EVENTS);
+            }
+        }
+
+        Log.d("DatabaseHelper", "Bulk insert finished: " + result.getInsertedCount() + " inserted, "
+                + result.getFailures().size() + " failed");
+        return result;
+    }
+
+    private void insertBulkRow(SQLiteStatement insert, Event event, int index,
+                               Set<String> activeOrganizers, BulkInsertResult result) {
+        if (!event.isValid()) {
+            result.recordFailure(index, "Event validation failed");
+            return;
+        }
+        if (!activeOrganizers.contains(event.getOrganizer())) {
+            result.recordFailure(index, "Organizer not found or inactive: " + event.getOrganizer());
+            return;
+        }
+
+        insert.clearBindings();
+        insert.bindString(1, event.getTitle());
+        insert.bindString(2, event.getDescription());
+        insert.bindLong(3, event.getStartMillis());
+        insert.bindLong(4, event.getEndMillis());
+        insert.bindString(5, event.getLocation());
+        insert.bindString(6, event.getOrganizer());
+        insert.bindLong(7, event.isActive() ? 1 : 0);
+        insert.bindString(8, normalizeLocation(event.getLocation()));
+        try {
+            // A constraint failure only aborts this statement, not the open transaction
+            result.recordInsert(index, insert.executeInsert());
+            noteEventSpan(event);
+            eventCache.invalidate(event);
+        } catch (SQLException e) {
+            result.recordFailure(index, e.getMessage());
+        }
+    }
+
+    // Looks up every distinct organizer with one IN query per MAX_QUERY_ARGS emails
+    private Set<String> findActiveOrganizers(SQLiteDatabase db, Set<String> emails) {
+        Set<String> active = new HashSet<>();
+        List<String> pending = new ArrayList<>(emails);
+        for (int start = 0; start < pending.size(); start += MAX_QUERY_ARGS) {
+            List<String> slice = pending.subList(start, Math.min(start + MAX_QUERY_ARGS, pending.size()));
+            StringBuilder placeholders = new StringBuilder();
+            for (int i = 0; i < slice.size(); i++) {
+                placeholders.append(i == 0 ? "?" : ", ?");
             }
+            Cursor cursor = db.query(TABLE_USERS, new String[]{COLUMN_EMAIL},
+                    COLUMN_EMAIL + " IN (" + placeholders + ") AND " + COLUMN_IS_ACTIVE + "=1",
+                    slice.toArray(new String[0]), null, null, null);
+            try {
+                while (cursor.moveToNext()) {
+                    active.add(cursor.getString(0));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Loads one event with all its columns, e.g. when a list row is opened. Archived
+     * events are found too. Returns null if there is no such event.
+     */
+    public Event getEvent(int id) {
+        StringBuilder query = new StringBuilder("SELECT ").append(EventRowMapper.EVENT_COLUMNS)
+                .append(" FROM ").append(TABLE_EVENTS).append(" WHERE ").append(COLUMN_EVENT_ID).append(" = ?");
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(id));
+        for (EventPartitions.Partition partition : partitions.getAttached()) {
+            query.append(" UNION ALL SELECT ").append(EventRowMapper.EVENT_COLUMNS)
+                    .append(" FROM ").append(partition.schema).append(".").append(TABLE_EVENTS)
+                    .append(" WHERE ").append(COLUMN_EVENT_ID).append(" = ?");
+            args.add(String.valueOf(id));
+        }
+        query.append(" LIMIT 1");
+
+        Cursor cursor = null;
+        try {
+            cursor = getReadableDatabase().rawQuery(query.toString(), args.toArray(new String[0]));
+            List<Event> events = EventRowMapper.readEvents(cursor);
+            return events.isEmpty() ? null : events.get(0);
         } catch (Exception e) {
-            Log.e("DatabaseHelper", "Error getting all events: " + e.getMessage(), e);
+            Log.e("DatabaseHelper", "Error getting event " + id + ": " + e.getMessage(), e);
+            return null;
         } finally {
             if (cursor != null) {
                 cursor.close();
             }
         }
-        
-        Log.d("DatabaseHelper", "Returning " + eventList.size() + " events");
-        return eventList;
     }
 
+    /**
+     * Writes every column of {@code event} to its row, in the main table or in the
+     * archive partition that holds it.
+     *
+     * @return number of rows updated, 0 if there is no such event
+     */
     public int updateEvent(Event event) {
         try {
             SQLiteDatabase db = this.getWritableDatabase();
             ContentValues values = new ContentValues();
             values.put(COLUMN_EVENT_TITLE, event.getTitle());
             values.put(COLUMN_EVENT_DESCRIPTION, event.getDescription());
-            values.put(COLUMN_EVENT_START_DATE, event.getStartDate() != null ? event.getStartDate().getTime() : 0);
-            values.put(COLUMN_EVENT_END_DATE, event.getEndDate() != null ? event.getEndDate().getTime() : 0);
+            values.put(COLUMN_EVENT_START_DATE, event.getStartMillis());
+            values.put(COLUMN_EVENT_END_DATE, event.getEndMillis());
             values.put(COLUMN_EVENT_LOCATION, event.getLocation());
+            values.put(COLUMN_EVENT_LOCATION_KEY, normalizeLocation(event.getLocation()));
             values.put(COLUMN_EVENT_ORGANIZER, event.getOrganizer());
             values.put(COLUMN_EVENT_IS_ACTIVE, event.isActive() ? 1 : 0);
 
-            return db.update(TABLE_EVENTS, values, COLUMN_EVENT_ID + "=?",
+            // The days the event used to cover go stale as well as the new ones
+            long[] oldSpan = findEventSpan(db, TABLE_EVENTS, event.getId());
+            if (oldSpan == null) {
+                return updateArchivedEvent(db, event, values);
+            }
+            boolean isSeries = findSeries(db, event.getId()) != null;
+
+            int rows = db.update(TABLE_EVENTS, values, COLUMN_EVENT_ID + "=?",
                     new String[]{String.valueOf(event.getId())});
+            if (rows > 0) {
+                if (isSeries) {
+                    onSeriesChanged();
+                    return rows;
+                }
+                eventCache.invalidate(oldSpan[0], oldSpan[1]);
+                noteEventSpan(event);
+                eventCache.invalidate(event);
+                invalidationTracker.notifyChanged(TABLE_EVENTS);
+            }
+            return rows;
         } catch (Exception e) {
             e.printStackTrace();
             return 0;
         }
     }
 
-    public void deleteEvent(int id) {
+    /**
+     * Deletes an event from the main table or from the archive partition that holds it.
+     *
+     * @return number of rows deleted, 0 if there is no such event
+     */
+    public int deleteEvent(int id) {
         SQLiteDatabase db = this.getWritableDatabase();
-        db.delete(TABLE_EVENTS, COLUMN_EVENT_ID + "=?", new String[]{String.valueOf(id)});
+        long[] span = findEventSpan(db, TABLE_EVENTS, id);
+        if (span == null) {
+            return deleteArchivedEvent(db, id);
+        }
+        boolean isSeries = findSeries(db, id) != null;
+        // The series rule and its exceptions go with the row through ON DELETE CASCADE
+        int rows = db.delete(TABLE_EVENTS, COLUMN_EVENT_ID + "=?", new String[]{String.valueOf(id)});
+        if (rows > 0) {
+            if (isSeries) {
+                onSeriesChanged();
+                return rows;
+            }
+            eventCache.invalidate(span[0], span[1]);
+            invalidationTracker.notifyChanged(TABLE_EVENTS);
+        }
+        return rows;
     }
 
-    // Add this method to the DatabaseHelper class
-    public List<Event> getEventsByDate(Date date) {
-        List<Event> eventList = new ArrayList<>();
+    private int updateArchivedEvent(SQLiteDatabase db, Event event, ContentValues values) {
+        EventPartitions.Partition partition = partitions.holding(db, event.getId());
+        if (partition == null) {
+            return 0;
+        }
+        long[] oldSpan = findEventSpan(db, partition.schema + "." + TABLE_EVENTS, event.getId());
+        int rows = partitions.update(db, partition, event.getId(), values,
+                event.getStartMillis(), event.getEndMillis());
+        if (rows > 0) {
+            eventCache.invalidate(event);
+            onArchiveChanged(db, oldSpan);
+        }
+        return rows;
+    }
+
+    private int deleteArchivedEvent(SQLiteDatabase db, int id) {
+        EventPartitions.Partition partition = partitions.holding(db, id);
+        if (partition == null) {
+            return 0;
+        }
+        long[] span = findEventSpan(db, partition.schema + "." + TABLE_EVENTS, id);
+        int rows = partitions.delete(db, partition, id);
+        if (rows > 0) {
+            onArchiveChanged(db, span);
+        }
+        return rows;
+    }
+
+    // Partition writes fire none of the main table's triggers, so stored month summaries are dropped here
+    private void onArchiveChanged(SQLiteDatabase db, long[] oldSpan) {
+        db.delete(TABLE_MONTH_SUMMARIES, null, null);
+        if (oldSpan != null) {
+            eventCache.invalidate(oldSpan[0], oldSpan[1]);
+        }
+        invalidationTracker.notifyChanged(TABLE_EVENTS);
+    }
+
+    // Stored {start, end} of an event in table, or null if it is not there
+    private long[] findEventSpan(SQLiteDatabase db, String table, int id) {
+        Cursor cursor = db.query(table,
+                new String[]{COLUMN_EVENT_START_DATE, COLUMN_EVENT_END_DATE},
+                COLUMN_EVENT_ID + "=?", new String[]{String.valueOf(id)}, null, null, null);
+        try {
+            return cursor.moveToFirst() ? new long[]{cursor.getLong(0), cursor.getLong(1)} : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /** Summaries of every event running at some point on the local day of {@code date}, by start. */
+    public List<EventSummary> getEventsByDate(Date date) {
+        LocalDate day = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        List<EventSummary> cached = eventCache.getEvents(day);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = eventCache.beginLoad();
+
         SQLiteDatabase db = this.getReadableDatabase();
 
         Calendar calendar = Calendar.getInstance();
@@ -418,162 +864,800 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         calendar.add(Calendar.DAY_OF_MONTH, 1);
         long endOfDay = calendar.getTimeInMillis();
 
-        String selectQuery = "SELECT * FROM " + TABLE_EVENTS 
-                + " WHERE " + COLUMN_EVENT_START_DATE + " >= ? AND " 
-                + COLUMN_EVENT_START_DATE + " < ?"
-                + " ORDER BY " + COLUMN_EVENT_START_DATE + " ASC";
-
-        Cursor cursor = db.rawQuery(selectQuery, 
-                new String[]{String.valueOf(startOfDay), String.valueOf(endOfDay)});
-
-        if (cursor.moveToFirst()) {
-            do {
-                Event event = new Event(
-                    cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ID)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_TITLE)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_DESCRIPTION)),
-                    new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_START_DATE))),
-                    new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_END_DATE))),
-                    cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_LOCATION)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ORGANIZER)),
-                    cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_IS_ACTIVE)) == 1
-                );
-                eventList.add(event);
-            } while (cursor.moveToNext());
+        // Every event running at some point during the day, not just those starting on it
+        Cursor cursor = queryOverlapping(db, EventRowMapper.summaryColumns("e"), startOfDay, endOfDay, null,
+                "e." + COLUMN_EVENT_START_DATE + " ASC");
+        List<EventSummary> eventList;
+        try {
+            eventList = EventRowMapper.readSummaries(cursor);
+        } finally {
+            cursor.close();
         }
-        cursor.close();
+        // Recurring series contribute whichever of their occurrences touch the day
+        if (addOccurrenceSummaries(db, startOfDay, endOfDay, false, eventList)) {
+            eventList.sort(SUMMARY_START_ORDER);
+        }
+        eventCache.putEvents(loadGeneration, day, eventList);
         return eventList;
     }
 
     public int getTotalEvents() {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_EVENTS, null);
-        int count = 0;
-        if (cursor.moveToFirst()) {
-            count = cursor.getInt(0);
-        }
-        cursor.close();
-        return count;
+        return readCounter(COUNTER_EVENTS);
     }
 
     public int getTotalUsers() {
+        return readCounter(COUNTER_USERS);
+    }
+
+    private int readCounter(String name) {
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_USERS, null);
+        Cursor cursor = db.rawQuery("SELECT value FROM " + TABLE_COUNTERS + " WHERE name = ?", new String[]{name});
         int count = 0;
         if (cursor.moveToFirst()) {
             count = cursor.getInt(0);
         }
         cursor.close();
-        return count;
+        // Archived rows left the main table's counters when they were moved
+        return count + (int) partitions.counter(name);
     }
 
-    public int getUpcomingEventsCount() {
-        SQLiteDatabase db = this.getReadableDatabase();
-        long currentTime = System.currentTimeMillis();
-        String[] selectionArgs = {String.valueOf(currentTime)};
-        Cursor cursor = db.rawQuery(
-                "SELECT COUNT(*) FROM " + TABLE_EVENTS + 
-                " WHERE " + COLUMN_EVENT_START_DATE + " >= ?",
-                selectionArgs);
-        int count = 0;
-        if (cursor.moveToFirst()) {
-            count = cursor.getInt(0);
+    /**
+     * Reads every statistic shown on the dashboard in one statement: the user and
+     * per-organizer event totals come from trigger-maintained counters, and the
+     * upcoming count, which changes as time passes, is an index range count on
+     * (organizer, start_date).
+     */
+    public DashboardSnapshot getDashboardSnapshot(String organizerEmail) {
+        String query = "SELECT"
+                + " (SELECT value FROM " + TABLE_COUNTERS + " WHERE name = ?),"
+                + " (SELECT value FROM " + TABLE_COUNTERS + " WHERE name = ?),"
+                + " (SELECT COUNT(*) FROM " + TABLE_EVENTS
+                + " WHERE " + COLUMN_EVENT_ORGANIZER + " = ? AND " + COLUMN_EVENT_START_DATE + " >= ?)";
+        String[] args = {
+                COUNTER_EVENTS_BY_ORGANIZER_PREFIX + organizerEmail,
+                COUNTER_USERS,
+                organizerEmail,
+                String.valueOf(System.currentTimeMillis())
+        };
+
+        Cursor cursor = null;
+        try {
+            cursor = getReadableDatabase().rawQuery(query, args);
+            if (cursor.moveToFirst()) {
+                int archived = (int) partitions.counter(COUNTER_EVENTS_BY_ORGANIZER_PREFIX + organizerEmail);
+                return new DashboardSnapshot(cursor.getInt(0) + archived, cursor.getInt(1), cursor.getInt(2));
+            }
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error reading dashboard snapshot: " + e.getMessage(), e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
         }
-        cursor.close();
-        return count;
+        return new DashboardSnapshot(0, 0, 0);
     }
 
-    public List<Event> getRecentEvents(int limit) {
-        List<Event> events = new ArrayList<>();
+    /**
+     * Moves events from years before the current and previous one into per-year
+     * archive files, which calendar, paging and search queries keep reading and
+     * {@link #updateEvent} and {@link #deleteEvent} still reach. Run
+     * from the I/O thread; it returns quickly when there is nothing to move.
+     *
+     * @return number of events archived
+     */
+    public int archivePastYears() {
+        try {
+            return partitions.archivePastYears(getWritableDatabase());
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error archiving past years: " + e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /** Summaries of the active events still running at or starting after {@code fromDate}, by start. */
+    public List<EventSummary> getUpcomingEvents(Date fromDate) {
+        List<EventSummary> cached = eventCache.getUpcoming(fromDate.getTime());
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = eventCache.beginLoad();
+
         SQLiteDatabase db = this.getReadableDatabase();
-        
-        String query = "SELECT * FROM " + TABLE_EVENTS +
-                " ORDER BY " + COLUMN_EVENT_START_DATE + " DESC LIMIT " + limit;
-        
-        Cursor cursor = db.rawQuery(query, null);
-        
-        if (cursor.moveToFirst()) {
-            do {
+
+        // Events already under way at fromDate are still upcoming for the list view
+        Cursor cursor = queryOverlapping(db, EventRowMapper.summaryColumns("e"), fromDate.getTime(), Long.MAX_VALUE,
+                "e." + COLUMN_EVENT_IS_ACTIVE + " = 1", "e." + COLUMN_EVENT_START_DATE + " ASC");
+        List<EventSummary> eventList;
+        try {
+            eventList = EventRowMapper.readSummaries(cursor);
+        } finally {
+            cursor.close();
+        }
+        // Series never end, so the list shows their occurrences over a fixed horizon
+        if (addOccurrenceSummaries(db, fromDate.getTime(), fromDate.getTime() + UPCOMING_SERIES_HORIZON_MILLIS,
+                true, eventList)) {
+            eventList.sort(SUMMARY_START_ORDER);
+        }
+        eventCache.putUpcoming(loadGeneration, fromDate.getTime(), eventList);
+        return eventList;
+    }
+
+    public int getEventCountForDate(Date date) {
+        LocalDate day = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        return getEventCountsByDay(day, day.plusDays(1))[0];
+    }
+
+    /**
+     * Ranked full-text search over event title, description and location. Every word
+     * in {@code query} must match, and the last characters of each word are treated
+     * as a prefix, so "sem ori" finds "Semester Orientation". Archived years are
+     * searched through their own index once the current ones run out of matches,
+     * newest year first.
+     */
+    public List<EventSummary> searchEvents(String query, int limit) {
+        return searchEvents(query, null, limit);
+    }
+
+    /**
+     * Same as {@link #searchEvents(String, int)}, restricted to one organizer's events
+     * when {@code organizerEmail} is not null.
+     */
+    public List<EventSummary> searchEvents(String query, String organizerEmail, int limit) {
+        List<EventSummary> results = new ArrayList<>();
+        List<String> terms = searchTerms(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return results;
+        }
+        String matchExpression = buildMatchExpression(terms);
+
+        try {
+            SQLiteDatabase db = getReadableDatabase();
+            results = searchIndex(db, "main", isFts5(db), matchExpression, organizerEmail, limit);
+            for (EventPartitions.Partition partition : partitions.getAttached()) {
+                if (results.size() >= limit) {
+                    break;
+                }
+                if (partition.fts5 != null) {
+                    results.addAll(searchIndex(db, partition.schema, partition.fts5, matchExpression,
+                            organizerEmail, limit - results.size()));
+                }
+            }
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error searching events: " + e.getMessage(), e);
+        }
+        return results;
+    }
+
+    // Up to limit matches from the events_fts index of one attached schema, best first
+    private List<EventSummary> searchIndex(SQLiteDatabase db, String schema, boolean fts5,
+                                           String matchExpression, String organizerEmail, int limit) {
+        List<String> args = new ArrayList<>();
+        args.add(matchExpression);
+
+        // The index is named by its schema in FROM only; MATCH and the ranking functions take the bare table name
+        StringBuilder sql = new StringBuilder("SELECT ").append(EventRowMapper.summaryColumns("e"));
+        if (fts5) {
+            sql.append(" FROM ").append(schema).append(".").append(TABLE_EVENTS_FTS)
+                    .append(" JOIN ").append(schema).append(".").append(TABLE_EVENTS)
+                    .append(" e ON e.").append(COLUMN_EVENT_ID)
+                    .append(" = ").append(TABLE_EVENTS_FTS).append(".rowid");
+        } else {
+            sql.append(", matchinfo(").append(TABLE_EVENTS_FTS).append(", 'pcx') AS match_info")
+                    .append(" FROM ").append(schema).append(".").append(TABLE_EVENTS_FTS)
+                    .append(" JOIN ").append(schema).append(".").append(TABLE_EVENTS)
+                    .append(" e ON e.").append(COLUMN_EVENT_ID)
+                    .append(" = ").append(TABLE_EVENTS_FTS).append(".docid");
+        }
+        sql.append(" WHERE ").append(TABLE_EVENTS_FTS).append(" MATCH ?");
+        if (organizerEmail != null) {
+            sql.append(" AND e.").append(COLUMN_EVENT_ORGANIZER).append(" = ?");
+            args.add(organizerEmail);
+        }
+        if (fts5) {
+            // bm25 is lower-is-better, and only the top rows are materialised
+            sql.append(" ORDER BY bm25(").append(TABLE_EVENTS_FTS);
+            for (double weight : SEARCH_COLUMN_WEIGHTS) {
+                sql.append(", ").append(weight);
+            }
+            sql.append(") LIMIT ").append(limit);
+        }
+
+        Cursor cursor = db.rawQuery(sql.toString(), args.toArray(new String[0]));
+        try {
+            return fts5 ? EventRowMapper.readSummaries(cursor) : rankByMatchInfo(cursor, limit);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private boolean isFts5(SQLiteDatabase db) {
+        Boolean cached = ftsIsFts5;
+        if (cached == null) {
+            Cursor cursor = db.rawQuery("SELECT sql FROM sqlite_master WHERE name = ?",
+                    new String[]{TABLE_EVENTS_FTS});
+            try {
+                cached = cursor.moveToFirst() && cursor.getString(0).toLowerCase(Locale.ROOT).contains("fts5");
+            } finally {
+                cursor.close();
+            }
+            ftsIsFts5 = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Splits free text into lower-case search terms. Anything that is not a letter
+     * or digit is treated as a separator, which also keeps FTS operators and quotes
+     * typed by the user from being interpreted as query syntax.
+     */
+    private static List<String> searchTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+        StringBuilder term = new StringBuilder();
+        String lower = query.toLowerCase(Locale.ROOT);
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else if (term.length() > 0) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    // A MATCH expression of prefix terms: "sem* ori*"
+    private static String buildMatchExpression(List<String> terms) {
+        StringBuilder expression = new StringBuilder();
+        for (String term : terms) {
+            if (expression.length() > 0) {
+                expression.append(' ');
+            }
+            expression.append(term).append('*');
+        }
+        return expression.toString();
+    }
+
+    /**
+     * FTS4 has no built-in ranking function, so score each match from its matchinfo
+     * 'pcx' blob: per phrase and column, hits in this row weighted by column and scaled
+     * down for terms that are common across the whole table.
+     */
+    private List<EventSummary> rankByMatchInfo(Cursor cursor, int limit) {
+        List<EventSummary> matches = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        EventRowMapper mapper = new EventRowMapper(cursor);
+        int matchInfoIndex = cursor.getColumnIndexOrThrow("match_info");
+        while (cursor.moveToNext()) {
+            IntBuffer info = ByteBuffer.wrap(cursor.getBlob(matchInfoIndex))
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+            int phrases = info.get(0);
+            int columns = info.get(1);
+            double score = 0;
+            for (int phrase = 0; phrase < phrases; phrase++) {
+                for (int column = 0; column < columns; column++) {
+                    int base = 2 + 3 * (phrase * columns + column);
+                    int hitsThisRow = info.get(base);
+                    int hitsAllRows = info.get(base + 1);
+                    if (hitsThisRow > 0) {
+                        double weight = column < SEARCH_COLUMN_WEIGHTS.length ? SEARCH_COLUMN_WEIGHTS[column] : 1.0;
+                        score += weight * hitsThisRow / (1.0 + hitsAllRows);
+                    }
+                }
+            }
+            matches.add(mapper.toSummary(cursor));
+            scores.add(score);
+        }
+
+        Integer[] order = new Integer[matches.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores.get(b), scores.get(a)));
+
+        List<EventSummary> ranked = new ArrayList<>(Math.min(limit, order.length));
+        for (int i = 0; i < order.length && i < limit; i++) {
+            ranked.add(matches.get(order[i]));
+        }
+        return ranked;
+    }
+
+    /**
+     * Counts events per local day for the half-open range [from, to) with a single
+     * overlap query. Element i of the result is the number of events running at
+     * some point on {@code from.plusDays(i)}, so a multi-day event counts on every
+     * day it spans and a week grid needs one call instead of seven.
+     */
+    public int[] getEventCountsByDay(LocalDate from, LocalDate to) {
+        int days = (int) ChronoUnit.DAYS.between(from, to);
+        int[] counts = new int[Math.max(days, 0)];
+        if (days <= 0 || eventCache.getCounts(from, counts)) {
+            return counts;
+        }
+        long loadGeneration = eventCache.beginLoad();
+        try {
+            countEventsByDay(getReadableDatabase(), from, to, counts);
+            eventCache.putCounts(loadGeneration, from, counts);
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error counting events by day: " + e.getMessage(), e);
+        }
+        return counts;
+    }
+
+    // Fills counts (one slot per day from from) for getEventCountsByDay; failures propagate
+    private void countEventsByDay(SQLiteDatabase db, LocalDate from, LocalDate to, int[] counts) {
+        ZoneId zone = ZoneId.systemDefault();
+        long rangeStart = from.atStartOfDay(zone).toInstant().toEpochMilli();
+        long rangeEnd = to.atStartOfDay(zone).toInstant().toEpochMilli();
+
+        Cursor cursor = queryOverlapping(db,
+                "e." + COLUMN_EVENT_START_DATE + ", e." + COLUMN_EVENT_END_DATE,
+                rangeStart, rangeEnd, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                countDays(counts, from, cursor.getLong(0), cursor.getLong(1), zone);
+            }
+        } finally {
+            cursor.close();
+        }
+        // Only the occurrences inside the requested days are expanded
+        List<Event> occurrences = new ArrayList<>();
+        addOccurrences(db, rangeStart, rangeEnd, false, occurrences);
+        for (Event occurrence : occurrences) {
+            countDays(counts, from, occurrence.getStartMillis(),
+                    occurrence.getEndMillis(), zone);
+        }
+    }
+
+    /**
+     * Which days of {@code month} have events and how many. A summary stored by an
+     * earlier call is returned without touching the events; otherwise the month is
+     * counted with the same range query as {@link #getEventCountsByDay} and the result
+     * stored. Stored summaries are dropped by triggers whenever events or
+     * recurrence rules change, and ignored after a time zone change. Returns null
+     * if the month could not be counted.
+     */
+    public MonthSummary getMonthSummary(YearMonth month) {
+        String key = month.toString();
+        String zone = ZoneId.systemDefault().getId();
+        SQLiteDatabase db;
+        try {
+            // Stored months are the common case and need no write lock
+            db = getReadableDatabase();
+            MonthSummary stored = findMonthSummary(db, month, key, zone);
+            if (stored != null) {
+                return stored;
+            }
+            db = getWritableDatabase();
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error summarizing " + key + ": " + e.getMessage(), e);
+            return null;
+        }
+        // A write between counting and storing would otherwise leave a stale row behind
+        db.beginTransaction();
+        try {
+            // Another caller may have stored the month since the lookup above
+            MonthSummary summary = findMonthSummary(db, month, key, zone);
+            if (summary == null) {
+                LocalDate first = month.atDay(1);
+                int[] counts = new int[month.lengthOfMonth()];
+                // Counting errors propagate so that a partial month is never stored
+                if (!eventCache.getCounts(first, counts)) {
+                    countEventsByDay(db, first, month.plusMonths(1).atDay(1), counts);
+                }
+                summary = MonthSummary.fromDayCounts(month, counts);
+                ContentValues values = new ContentValues();
+                values.put("month", key);
+                values.put("zone", zone);
+                values.put("presence", summary.getPresenceMask());
+                values.put("counts", summary.toCountBytes());
+                db.insertWithOnConflict(TABLE_MONTH_SUMMARIES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+            return summary;
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error summarizing " + key + ": " + e.getMessage(), e);
+            return null;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // The stored summary for the month if it was computed in the same zone, else null
+    private static MonthSummary findMonthSummary(SQLiteDatabase db, YearMonth month, String key, String zone) {
+        Cursor cursor = db.query(TABLE_MONTH_SUMMARIES, new String[]{"presence", "counts"},
+                "month = ? AND zone = ?", new String[]{key, zone}, null, null, null);
+        try {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            return MonthSummary.fromStored(month, cursor.getInt(0), cursor.getBlob(1));
+        } catch (IllegalArgumentException e) {
+            Log.w("DatabaseHelper", "Recomputing malformed summary for " + key + ": " + e.getMessage());
+            return null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Adds one to every day in counts (starting at from) that the event touches
+    private static void countDays(int[] counts, LocalDate from, long start, long end, ZoneId zone) {
+        // The end is exclusive: an event ending at midnight does not touch the next day
+        LocalDate firstDay = Instant.ofEpochMilli(start).atZone(zone).toLocalDate();
+        LocalDate lastDay = end > start ? Instant.ofEpochMilli(end - 1).atZone(zone).toLocalDate() : firstDay;
+        int first = (int) Math.max(0, ChronoUnit.DAYS.between(from, firstDay));
+        int last = (int) Math.min(counts.length - 1, ChronoUnit.DAYS.between(from, lastDay));
+        for (int i = first; i <= last; i++) {
+            counts[i]++;
+        }
+    }
+
+    /**
+     * Opens a cursor over events overlapping the half-open range [from, to): those
+     * starting before {@code to} and still running after {@code from}, plus
+     * zero-length events inside the range. {@code columns}, {@code extraWhere} and
+     * {@code orderBy} refer to the events table as {@code e}. The first rows of
+     * recurring series are left out; callers add them through {@link #addOccurrences}.
+     * Archive partitions whose years the range touches are read as well.
+     */
+    private Cursor queryOverlapping(SQLiteDatabase db, String columns, long from, long to,
+                                    String extraWhere, String orderBy) {
+        List<String> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns);
+        if (hasSpanIndex(db)) {
+            // R*Tree coordinates are 32-bit floats rounded outwards, so the index
+            // yields a small superset that the exact comparison below trims
+            sql.append(" FROM ").append(TABLE_EVENTS_SPAN).append(" s CROSS JOIN ").append(TABLE_EVENTS)
+                    .append(" e ON e.").append(COLUMN_EVENT_ID).append(" = s.id")
+                    .append(" WHERE s.start_date < ? AND s.end_date >= ? AND ");
+            args.add(String.valueOf(to));
+            args.add(String.valueOf(from));
+        } else {
+            // Without the span index, anything overlapping started at most the
+            // longest event duration before the range, so the start_date index bounds the scan
+            sql.append(" FROM ").append(TABLE_EVENTS).append(" e WHERE e.")
+                    .append(COLUMN_EVENT_START_DATE).append(" >= ? AND ");
+            args.add(String.valueOf(from - getMaxEventSpan(db)));
+        }
+        sql.append("e.").append(COLUMN_EVENT_START_DATE).append(" < ? AND (e.")
+                .append(COLUMN_EVENT_END_DATE).append(" > ? OR e.")
+                .append(COLUMN_EVENT_START_DATE).append(" >= ?)");
+        args.add(String.valueOf(to));
+        args.add(String.valueOf(from));
+        args.add(String.valueOf(from));
+        sql.append(" AND NOT EXISTS (SELECT 1 FROM ").append(TABLE_RECURRENCE)
+                .append(" r WHERE r.event_id = e.").append(COLUMN_EVENT_ID).append(")");
+        if (extraWhere != null) {
+            sql.append(" AND ").append(extraWhere);
+        }
+
+        // Archived years are only read when the range reaches into them
+        List<EventPartitions.Partition> archived = partitions.overlapping(from, to);
+        for (EventPartitions.Partition partition : archived) {
+            sql.append(" UNION ALL SELECT ").append(columns).append(" FROM ").append(partition.schema)
+                    .append(".").append(TABLE_EVENTS).append(" e WHERE e.")
+                    .append(COLUMN_EVENT_START_DATE).append(" >= ? AND e.")
+                    .append(COLUMN_EVENT_START_DATE).append(" < ? AND (e.")
+                    .append(COLUMN_EVENT_END_DATE).append(" > ? OR e.")
+                    .append(COLUMN_EVENT_START_DATE).append(" >= ?)");
+            args.add(String.valueOf(from - partition.maxSpan));
+            args.add(String.valueOf(to));
+            args.add(String.valueOf(from));
+            args.add(String.valueOf(from));
+            if (extraWhere != null) {
+                sql.append(" AND ").append(extraWhere);
+            }
+        }
+        if (!archived.isEmpty()) {
+            // Ordering applies to the whole compound, still addressable as e
+            sql.insert(0, "SELECT * FROM (").append(") e");
+        }
+        if (orderBy != null) {
+            sql.append(" ORDER BY ").append(orderBy);
+        }
+        return db.rawQuery(sql.toString(), args.toArray(new String[0]));
+    }
+
+    private boolean hasSpanIndex(SQLiteDatabase db) {
+        Boolean cached = hasSpanIndex;
+        if (cached == null) {
+            Cursor cursor = db.rawQuery("SELECT 1 FROM sqlite_master WHERE name = ?",
+                    new String[]{TABLE_EVENTS_SPAN});
+            try {
+                cached = cursor.moveToFirst();
+            } finally {
+                cursor.close();
+            }
+            hasSpanIndex = cached;
+        }
+        return cached;
+    }
+
+    private long getMaxEventSpan(SQLiteDatabase db) {
+        synchronized (maxEventSpanLock) {
+            if (maxEventSpan < 0) {
+                Cursor cursor = db.rawQuery("SELECT IFNULL(MAX(" + COLUMN_EVENT_END_DATE + " - "
+                        + COLUMN_EVENT_START_DATE + "), 0) FROM " + TABLE_EVENTS, null);
                 try {
-                    int id = cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ID));
-                    String title = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_TITLE));
-                    String description = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_DESCRIPTION));
-                    Date startDate = new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_START_DATE)));
-                    Date endDate = new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_END_DATE)));
-                    String location = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_LOCATION));
-                    String organizer = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ORGANIZER));
-                    boolean isActive = cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_IS_ACTIVE)) == 1;
-
-                    Event event = new Event(id, title, description, startDate, endDate, location, organizer, isActive);
-                    events.add(event);
-                } catch (Exception e) {
-                    Log.e("DatabaseHelper", "Error creating event from cursor: " + e.getMessage());
+                    maxEventSpan = cursor.moveToFirst() ? Math.max(0, cursor.getLong(0)) : 0;
+                } finally {
+                    cursor.close();
                 }
-            } while (cursor.moveToNext());
+            }
+            return maxEventSpan;
         }
-        cursor.close();
-        return events;
     }
 
-    public List<Event> getUpcomingEvents(Date fromDate) {
-        List<Event> eventList = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
+    // Widens the fallback scan bound after a write; deletes never shrink it
+    private void noteEventSpan(Event event) {
+        long span = event.getEndMillis() - event.getStartMillis();
+        synchronized (maxEventSpanLock) {
+            if (maxEventSpan >= 0 && span > maxEventSpan) {
+                maxEventSpan = span;
+            }
+        }
+    }
 
-        String selectQuery = "SELECT * FROM " + TABLE_EVENTS 
-                + " WHERE " + COLUMN_EVENT_START_DATE + " >= ? AND "
-                + COLUMN_EVENT_IS_ACTIVE + " = 1"
-                + " ORDER BY " + COLUMN_EVENT_START_DATE + " ASC";
+    /**
+     * Inserts an event as the first occurrence of a recurring series. Later
+     * occurrences are not stored; the calendar queries expand them from the rule
+     * for just the days being shown.
+     *
+     * @return the series id (the first occurrence's event id), or -1 on failure
+     */
+    public long addRecurringEvent(Event event, RecurrenceRule rule) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        long id = -1;
+        db.beginTransaction();
+        try {
+            id = addEvent(event);
+            if (id != -1) {
+                ContentValues values = new ContentValues();
+                values.put("event_id", id);
+                values.put("frequency", rule.getFrequency().name());
+                values.put("repeat_interval", rule.getInterval());
+                values.put("repeat_count", rule.getCount());
+                values.put("until_date", rule.getUntilMillis());
+                db.insertOrThrow(TABLE_RECURRENCE, null, values);
+                for (long occurrenceStart : rule.getExceptions()) {
+                    insertRecurrenceException(db, id, occurrenceStart);
+                }
+                db.setTransactionSuccessful();
+                Log.d("DatabaseHelper", "Recurring event created with ID: " + id + ", " + rule);
+            }
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error adding recurring event: " + e.getMessage(), e);
+            id = -1;
+        } finally {
+            db.endTransaction();
+        }
+        if (id != -1) {
+            onSeriesChanged();
+        }
+        return id;
+    }
 
-        Cursor cursor = db.rawQuery(selectQuery, new String[]{String.valueOf(fromDate.getTime())});
+    /** Skips one occurrence of a series, identified by its start time. */
+    public boolean addRecurrenceException(int seriesId, long occurrenceStart) {
+        try {
+            SQLiteDatabase db = this.getWritableDatabase();
+            if (insertRecurrenceException(db, seriesId, occurrenceStart) == -1) {
+                return false;
+            }
+            onSeriesChanged();
+            return true;
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error adding recurrence exception: " + e.getMessage(), e);
+            return false;
+        }
+    }
 
-        if (cursor.moveToFirst()) {
-            do {
-                Event event = new Event(
-                    cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ID)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_TITLE)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_DESCRIPTION)),
-                    new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_START_DATE))),
-                    new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_END_DATE))),
-                    cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_LOCATION)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ORGANIZER)),
-                    cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_IS_ACTIVE)) == 1
-                );
-                eventList.add(event);
-            } while (cursor.moveToNext());
+    private long insertRecurrenceException(SQLiteDatabase db, long seriesId, long occurrenceStart) {
+        ContentValues values = new ContentValues();
+        values.put("event_id", seriesId);
+        values.put("occurrence_start", occurrenceStart);
+        return db.insertWithOnConflict(TABLE_RECURRENCE_EXCEPTIONS, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+    }
+
+    /** The rule of the series whose first occurrence is {@code eventId}, or null for a single event. */
+    public RecurrenceRule getRecurrenceRule(int eventId) {
+        Series series = findSeries(getReadableDatabase(), eventId);
+        return series != null ? series.rule : null;
+    }
+
+    /**
+     * Adds the occurrences of every series that overlap [from, to) to {@code into}.
+     * Occurrences are copies of the first event, same id, moved in time.
+     *
+     * @return whether anything was added
+     */
+    private boolean addOccurrences(SQLiteDatabase db, long from, long to, boolean activeOnly, List<Event> into) {
+        boolean added = false;
+        ZoneId zone = ZoneId.systemDefault();
+        for (Series series : getSeries(db)) {
+            long firstStart = series.first.getStartMillis();
+            if ((activeOnly && !series.first.isActive()) || firstStart >= to || series.lastEnd < from) {
+                continue;
+            }
+            for (long start : series.rule.expand(firstStart, series.duration, from, to, zone)) {
+                into.add(occurrence(series.first, start, series.duration));
+                added = true;
+            }
         }
-        cursor.close();
-        return eventList;
+        return added;
     }
 
-    public int getEventCountForDate(Date date) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        Date startOfDay = cal.getTime();
-        
-        cal.set(Calendar.HOUR_OF_DAY, 23);
-        cal.set(Calendar.MINUTE, 59);
-        cal.set(Calendar.SECOND, 59);
-        Date endOfDay = cal.getTime();
-
-        String selection = COLUMN_EVENT_START_DATE + " >= ? AND " + COLUMN_EVENT_START_DATE + " <= ?";
-        String[] selectionArgs = {
-            String.valueOf(startOfDay.getTime()),
-            String.valueOf(endOfDay.getTime())
-        };
+    // Same as addOccurrences, for the list screens
+    private boolean addOccurrenceSummaries(SQLiteDatabase db, long from, long to, boolean activeOnly,
+                                           List<EventSummary> into) {
+        List<Event> occurrences = new ArrayList<>();
+        if (!addOccurrences(db, from, to, activeOnly, occurrences)) {
+            return false;
+        }
+        for (Event occurrence : occurrences) {
+            into.add(EventSummary.from(occurrence));
+        }
+        return true;
+    }
 
-        Cursor cursor = db.query(TABLE_EVENTS, new String[]{"COUNT(*)"},
-                selection, selectionArgs, null, null, null);
+    private static Event occurrence(Event first, long start, long duration) {
+        return first.toBuilder()
+                .setStartMillis(start)
+                .setEndMillis(start + duration)
+                .build();
+    }
 
-        int count = 0;
-        if (cursor != null && cursor.moveToFirst()) {
-            count = cursor.getInt(0);
+    private Series findSeries(SQLiteDatabase db, int eventId) {
+        for (Series series : getSeries(db)) {
+            if (series.first.getId() == eventId) {
+                return series;
+            }
+        }
+        return null;
+    }
+
+    private List<Series> getSeries(SQLiteDatabase db) {
+        synchronized (seriesLock) {
+            if (seriesCache != null) {
+                return seriesCache;
+            }
+            Map<Integer, List<Long>> exceptions = new HashMap<>();
+            Cursor cursor = db.rawQuery("SELECT event_id, occurrence_start FROM " + TABLE_RECURRENCE_EXCEPTIONS, null);
+            try {
+                while (cursor.moveToNext()) {
+                    exceptions.computeIfAbsent(cursor.getInt(0), key -> new ArrayList<>()).add(cursor.getLong(1));
+                }
+            } finally {
+                cursor.close();
+            }
+
+            List<Series> series = new ArrayList<>();
+            cursor = db.rawQuery("SELECT e.id, e.title, e.description, e.start_date, e.end_date, e.location,"
+                    + " e.organizer, e.is_active, r.frequency, r.repeat_interval, r.repeat_count, r.until_date"
+                    + " FROM " + TABLE_RECURRENCE + " r JOIN " + TABLE_EVENTS + " e ON e."
+                    + COLUMN_EVENT_ID + " = r.event_id", null);
+            try {
+                EventRowMapper mapper = new EventRowMapper(cursor);
+                while (cursor.moveToNext()) {
+                    Event first = mapper.toEvent(cursor);
+                    try {
+                        RecurrenceRule rule = new RecurrenceRule(
+                                RecurrenceRule.Frequency.valueOf(cursor.getString(cursor.getColumnIndexOrThrow("frequency"))),
+                                cursor.getInt(cursor.getColumnIndexOrThrow("repeat_interval")),
+                                cursor.getInt(cursor.getColumnIndexOrThrow("repeat_count")),
+                                cursor.getLong(cursor.getColumnIndexOrThrow("until_date")),
+                                exceptions.get(first.getId()));
+                        series.add(new Series(first, rule));
+                    } catch (IllegalArgumentException e) {
+                        Log.e("DatabaseHelper", "Skipping series " + first.getId() + ": " + e.getMessage());
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+            seriesCache = Collections.unmodifiableList(series);
+            return seriesCache;
+        }
+    }
+
+    // A series change can move occurrences on any day, so every cached day goes
+    private void onSeriesChanged() {
+        synchronized (seriesLock) {
+            seriesCache = null;
+        }
+        eventCache.clear();
+        invalidationTracker.notifyChanged(TABLE_EVENTS);
+    }
+
+    /**
+     * Finds active events that overlap [start, end) and share either the organizer
+     * or the normalized location, at most {@link #MAX_CONFLICTS} of each, ordered by
+     * start. {@code excludeId} skips the event being edited; pass 0 for a new one.
+     * Both lookups are range scans on (organizer, start_date) and
+     * (location_key, start_date), bounded below by the longest event duration.
+     */
+    public ScheduleConflicts findConflicts(String organizer, String location, long start, long end,
+                                           int excludeId) {
+        List<Event> byOrganizer = new ArrayList<>();
+        List<Event> byLocation = new ArrayList<>();
+        if (end <= start) {
+            return new ScheduleConflicts(byOrganizer, byLocation);
+        }
+        try {
+            SQLiteDatabase db = this.getReadableDatabase();
+            long earliestStart = start - getMaxEventSpan(db);
+            if (organizer != null && !organizer.isEmpty()) {
+                queryConflicts(db, COLUMN_EVENT_ORGANIZER, organizer, earliestStart, start, end,
+                        excludeId, byOrganizer);
+            }
+            String locationKey = normalizeLocation(location);
+            if (!locationKey.isEmpty()) {
+                queryConflicts(db, COLUMN_EVENT_LOCATION_KEY, locationKey, earliestStart, start, end,
+                        excludeId, byLocation);
+            }
+
+            // Recurring series are matched on their expanded occurrences in the slot
+            List<Event> occurrences = new ArrayList<>();
+            addOccurrences(db, start, end, true, occurrences);
+            for (Event occurrence : occurrences) {
+                if (occurrence.getId() == excludeId) {
+                    continue;
+                }
+                if (occurrence.getOrganizer().equals(organizer)) {
+                    byOrganizer.add(occurrence);
+                }
+                if (!locationKey.isEmpty() && normalizeLocation(occurrence.getLocation()).equals(locationKey)) {
+                    byLocation.add(occurrence);
+                }
+            }
+            if (!occurrences.isEmpty()) {
+                trimConflicts(byOrganizer);
+                trimConflicts(byLocation);
+            }
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error finding conflicts: " + e.getMessage(), e);
+        }
+        return new ScheduleConflicts(byOrganizer, byLocation);
+    }
+
+    private void queryConflicts(SQLiteDatabase db, String keyColumn, String key, long earliestStart,
+                                long start, long end, int excludeId, List<Event> into) {
+        String selection = keyColumn + " = ? AND " + COLUMN_EVENT_START_DATE + " >= ? AND "
+                + COLUMN_EVENT_START_DATE + " < ? AND " + COLUMN_EVENT_END_DATE + " > ? AND "
+                + COLUMN_EVENT_IS_ACTIVE + " = 1 AND " + COLUMN_EVENT_ID + " != ? AND NOT EXISTS (SELECT 1 FROM "
+                + TABLE_RECURRENCE + " r WHERE r.event_id = " + TABLE_EVENTS + "." + COLUMN_EVENT_ID + ")";
+        String[] args = {key, String.valueOf(earliestStart), String.valueOf(end), String.valueOf(start),
+                String.valueOf(excludeId)};
+        Cursor cursor = db.query(TABLE_EVENTS, EVENT_PROJECTION, selection, args, null, null,
+                COLUMN_EVENT_START_DATE + " ASC", String.valueOf(MAX_CONFLICTS));
+        try {
+            into.addAll(EventRowMapper.readEvents(cursor));
+        } finally {
             cursor.close();
         }
-        return count;
+    }
+
+    private static void trimConflicts(List<Event> conflicts) {
+        conflicts.sort(START_DATE_ORDER);
+        while (conflicts.size() > MAX_CONFLICTS) {
+            conflicts.remove(conflicts.size() - 1);
+        }
+    }
+
+    /**
+     * Folds a location to the key conflicts are matched on, so that "Main  Hall"
+     * and "main hall" count as the same room: compatibility-normalized, lower
+     * case, with whitespace runs collapsed and trimmed.
+     */
+    static String normalizeLocation(String location) {
+        if (location == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(location, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return folded.replaceAll("\\s+", " ").trim();
     }
 
     // Add this method to fetch events by organizer
@@ -584,32 +1668,14 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
         try {
             db = this.getReadableDatabase();
-            String selectQuery = "SELECT * FROM " + TABLE_EVENTS
+            String selectQuery = "SELECT " + EventRowMapper.EVENT_COLUMNS + " FROM " + TABLE_EVENTS
                     + " WHERE " + COLUMN_EVENT_ORGANIZER + " = ?"
                     + " ORDER BY " + COLUMN_EVENT_START_DATE + " ASC";
 
             cursor = db.rawQuery(selectQuery, new String[]{organizerEmail});
             Log.d("DatabaseHelper", "Found " + cursor.getCount() + " events for organizer " + organizerEmail);
 
-            if (cursor.moveToFirst()) {
-                do {
-                    try {
-                        Event event = new Event(
-                                cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ID)),
-                                cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_TITLE)),
-                                cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_DESCRIPTION)),
-                                new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_START_DATE))),
-                                new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_END_DATE))),
-                                cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_LOCATION)),
-                                cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ORGANIZER)),
-                                cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_IS_ACTIVE)) == 1
-                        );
-                        eventList.add(event);
-                    } catch (Exception e) {
-                        Log.e("DatabaseHelper", "Error creating event from cursor: " + e.getMessage(), e);
-                    }
-                } while (cursor.moveToNext());
-            }
+            eventList = EventRowMapper.readEvents(cursor);
         } catch (Exception e) {
             Log.e("DatabaseHelper", "Error getting events by organizer: " + e.getMessage(), e);
         } finally {
@@ -622,67 +1688,75 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         return eventList;
     }
 
-    // Add this method to get total events for a specific organizer
-    public int getTotalEventsByOrganizer(String organizerEmail) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_EVENTS + " WHERE " + COLUMN_EVENT_ORGANIZER + " = ?", new String[]{organizerEmail});
-        int count = 0;
-        if (cursor.moveToFirst()) {
-            count = cursor.getInt(0);
+    /**
+     * Returns one page of an organizer's events, newest first, using keyset pagination
+     * on (start_date, id). Pass {@code null} as {@code after} for the first page and the
+     * last event of the previous page to fetch the next one. Each page is an index range
+     * scan on (organizer, start_date), so its cost does not grow with the page number.
+     */
+    public List<EventSummary> getEventsByOrganizerPage(String organizerEmail, EventSummary after, int pageSize) {
+        List<EventSummary> eventList = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        StringBuilder query = new StringBuilder();
+        appendOrganizerPage(query, args, TABLE_EVENTS, organizerEmail, after, pageSize);
+
+        // Archived years join in once paging reaches them; each branch stops at
+        // pageSize rows of its own index, so only the merge sorts
+        boolean compound = false;
+        for (EventPartitions.Partition partition : partitions.getAttached()) {
+            if (after == null || partition.rangeStart <= after.getStartMillis()) {
+                query.append(" UNION ALL ");
+                appendOrganizerPage(query, args, partition.schema + "." + TABLE_EVENTS, organizerEmail,
+                        after, pageSize);
+                compound = true;
+            }
+        }
+        if (compound) {
+            query.append(" ORDER BY ").append(COLUMN_EVENT_START_DATE).append(" DESC, ")
+                    .append(COLUMN_EVENT_ID).append(" DESC LIMIT ").append(pageSize);
         }
-        cursor.close();
-        return count;
-    }
 
-    // Add this method to get upcoming events count for a specific organizer
-    public int getUpcomingEventsCountByOrganizer(String organizerEmail) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        long currentTime = System.currentTimeMillis();
-        String[] selectionArgs = {organizerEmail, String.valueOf(currentTime)};
-        Cursor cursor = db.rawQuery(
-                "SELECT COUNT(*) FROM " + TABLE_EVENTS + 
-                " WHERE " + COLUMN_EVENT_ORGANIZER + " = ? AND " +
-                COLUMN_EVENT_START_DATE + " >= ?",
-                selectionArgs);
-        int count = 0;
-        if (cursor.moveToFirst()) {
-            count = cursor.getInt(0);
+        Cursor cursor = null;
+        try {
+            cursor = getReadableDatabase().rawQuery(query.toString(), args.toArray(new String[0]));
+            eventList = EventRowMapper.readSummaries(cursor);
+        } catch (Exception e) {
+            Log.e("DatabaseHelper", "Error getting events page for organizer: " + e.getMessage(), e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
         }
-        cursor.close();
-        return count;
+        return eventList;
     }
 
-    // Add this method to get recent events for a specific organizer
-    public List<Event> getRecentEventsByOrganizer(String organizerEmail, int limit) {
-        List<Event> events = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
-
-        String query = "SELECT * FROM " + TABLE_EVENTS +
-                " WHERE " + COLUMN_EVENT_ORGANIZER + " = ?" +
-                " ORDER BY " + COLUMN_EVENT_START_DATE + " DESC LIMIT " + limit;
+    // One keyset page of an organizer's events from one table, newest first
+    private static void appendOrganizerPage(StringBuilder query, List<String> args, String table,
+                                            String organizerEmail, EventSummary after, int pageSize) {
+        query.append("SELECT * FROM (SELECT ").append(EventRowMapper.SUMMARY_COLUMNS).append(" FROM ").append(table)
+                .append(" WHERE ").append(COLUMN_EVENT_ORGANIZER).append(" = ?");
+        args.add(organizerEmail);
+        if (after != null) {
+            long afterStart = after.getStartMillis();
+            query.append(" AND (").append(COLUMN_EVENT_START_DATE).append(" < ? OR (")
+                    .append(COLUMN_EVENT_START_DATE).append(" = ? AND ")
+                    .append(COLUMN_EVENT_ID).append(" < ?))");
+            args.add(String.valueOf(afterStart));
+            args.add(String.valueOf(afterStart));
+            args.add(String.valueOf(after.getId()));
+        }
+        query.append(" ORDER BY ").append(COLUMN_EVENT_START_DATE).append(" DESC, ")
+                .append(COLUMN_EVENT_ID).append(" DESC LIMIT ").append(pageSize).append(")");
+    }
 
-        Cursor cursor = db.rawQuery(query, new String[]{organizerEmail});
+    // Add this method to get total events for a specific organizer
+    public int getTotalEventsByOrganizer(String organizerEmail) {
+        return readCounter(COUNTER_EVENTS_BY_ORGANIZER_PREFIX + organizerEmail);
+    }
 
-        if (cursor.moveToFirst()) {
-            do {
-                try {
-                    int id = cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ID));
-                    String title = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_TITLE));
-                    String description = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_DESCRIPTION));
-                    Date startDate = new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_START_DATE)));
-                    Date endDate = new Date(cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_EVENT_END_DATE)));
-                    String location = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_LOCATION));
-                    String organizer = cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_EVENT_ORGANIZER));
-                    boolean isActive = cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_EVENT_IS_ACTIVE)) == 1;
-
-                    Event event = new Event(id, title, description, startDate, endDate, location, organizer, isActive);
-                    events.add(event);
-                } catch (Exception e) {
-                    Log.e("DatabaseHelper", "Error creating event from cursor: " + e.getMessage());
-                }
-            } while (cursor.moveToNext());
-        }
-        cursor.close();
-        return events;
+    // Add this method to get recent events for a specific organizer
+    public List<EventSummary> getRecentEventsByOrganizer(String organizerEmail, int limit) {
+        // The first page of the organizer's events, which reaches into the archive when needed
+        return getEventsByOrganizerPage(organizerEmail, null, limit);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,277 @@
+package com.example.sems.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+/**
+ * Ordered registry of schema migrations. SQL in here is written out literally
+ * rather than built from DatabaseHelper's column constants, so that a step keeps
+ * describing the schema as it was at that version.
+ */
+final class DatabaseMigrations {
+    private static final String TAG = "DatabaseMigrations";
+
+    // Oldest schema we can upgrade in place; anything older is recreated
+    static final int BASE_VERSION = 2;
+
+    // Version 3: secondary indexes for the date, organizer and active-event queries
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_events_start_date ON events(start_date)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_events_organizer_start ON events(organizer, start_date)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_events_active_start ON events(is_active, start_date)");
+        }
+    };
+
+    // Version 4: full-text index over title, description and location, kept in sync by triggers
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SQLiteDatabase db) {
+            createSearchIndex(db, "main");
+            // Index whatever rows already exist
+            db.execSQL("INSERT INTO events_fts(events_fts) VALUES('rebuild')");
+        }
+    };
+
+    // Version 5: counters for the dashboard statistics, kept current by triggers
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE dashboard_counters ("
+                    + "name TEXT PRIMARY KEY, value INTEGER NOT NULL DEFAULT 0) WITHOUT ROWID");
+
+            // Seed from the current contents before the triggers take over
+            db.execSQL("INSERT INTO dashboard_counters(name, value) SELECT 'users', COUNT(*) FROM users");
+            db.execSQL("INSERT INTO dashboard_counters(name, value) SELECT 'events', COUNT(*) FROM events");
+            db.execSQL("INSERT INTO dashboard_counters(name, value)"
+                    + " SELECT 'events:' || organizer, COUNT(*) FROM events GROUP BY organizer");
+
+            db.execSQL("CREATE TRIGGER counters_users_ai AFTER INSERT ON users BEGIN"
+                    + " UPDATE dashboard_counters SET value = value + 1 WHERE name = 'users'; END");
+            db.execSQL("CREATE TRIGGER counters_users_ad AFTER DELETE ON users BEGIN"
+                    + " UPDATE dashboard_counters SET value = value - 1 WHERE name = 'users'; END");
+
+            db.execSQL("CREATE TRIGGER counters_events_ai AFTER INSERT ON events BEGIN"
+                    + " UPDATE dashboard_counters SET value = value + 1 WHERE name = 'events';"
+                    + " INSERT INTO dashboard_counters(name, value) VALUES ('events:' || new.organizer, 1)"
+                    + " ON CONFLICT(name) DO UPDATE SET value = value + 1; END");
+            db.execSQL("CREATE TRIGGER counters_events_ad AFTER DELETE ON events BEGIN"
+                    + " UPDATE dashboard_counters SET value = value - 1 WHERE name = 'events';"
+                    + " UPDATE dashboard_counters SET value = value - 1 WHERE name = 'events:' || old.organizer; END");
+            db.execSQL("CREATE TRIGGER counters_events_au AFTER UPDATE OF organizer ON events"
+                    + " WHEN old.organizer IS NOT new.organizer BEGIN"
+                    + " UPDATE dashboard_counters SET value = value - 1 WHERE name = 'events:' || old.organizer;"
+                    + " INSERT INTO dashboard_counters(name, value) VALUES ('events:' || new.organizer, 1)"
+                    + " ON CONFLICT(name) DO UPDATE SET value = value + 1; END");
+        }
+    };
+
+    // Version 6: R*Tree over each event's [start, end] so overlap queries are indexed
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(SQLiteDatabase db) {
+            try {
+                db.execSQL("CREATE VIRTUAL TABLE events_span USING rtree(id, start_date, end_date)");
+            } catch (SQLiteException e) {
+                // DatabaseHelper falls back to a bounded start_date window without it
+                Log.w(TAG, "R*Tree unavailable, overlap queries use the start_date index: " + e.getMessage());
+                return;
+            }
+            // R*Tree needs min <= max, so a zero or negative span is stored as an instant
+            db.execSQL("INSERT INTO events_span(id, start_date, end_date)"
+                    + " SELECT id, start_date, MAX(start_date, end_date) FROM events");
+            db.execSQL("CREATE TRIGGER events_span_ai AFTER INSERT ON events BEGIN"
+                    + " INSERT INTO events_span(id, start_date, end_date)"
+                    + " VALUES (new.id, new.start_date, MAX(new.start_date, new.end_date)); END");
+            db.execSQL("CREATE TRIGGER events_span_ad AFTER DELETE ON events BEGIN"
+                    + " DELETE FROM events_span WHERE id = old.id; END");
+            db.execSQL("CREATE TRIGGER events_span_au AFTER UPDATE OF start_date, end_date ON events BEGIN"
+                    + " UPDATE events_span SET start_date = new.start_date,"
+                    + " end_date = MAX(new.start_date, new.end_date) WHERE id = new.id; END");
+        }
+    };
+
+    // Version 7: normalized location column and the indexes the conflict lookups scan
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(SQLiteDatabase db) {
+            db.execSQL("ALTER TABLE events ADD COLUMN location_key TEXT NOT NULL DEFAULT ''");
+
+            // The key folds Unicode case and spacing, which SQLite's lower() cannot,
+            // so existing rows are backfilled from Java
+            SQLiteStatement update = db.compileStatement("UPDATE events SET location_key = ? WHERE id = ?");
+            Cursor cursor = db.rawQuery("SELECT id, location FROM events", null);
+            try {
+                while (cursor.moveToNext()) {
+                    update.bindString(1, DatabaseHelper.normalizeLocation(cursor.getString(1)));
+                    update.bindLong(2, cursor.getLong(0));
+                    update.executeUpdateDelete();
+                }
+            } finally {
+                cursor.close();
+                update.close();
+            }
+
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_events_location_start ON events(location_key, start_date)");
+        }
+    };
+
+    // Version 8: recurrence rules stored once per series, plus skipped occurrences
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE event_recurrence ("
+                    + "event_id INTEGER PRIMARY KEY REFERENCES events(id) ON DELETE CASCADE,"
+                    + "frequency TEXT NOT NULL,"
+                    + "repeat_interval INTEGER NOT NULL DEFAULT 1,"
+                    + "repeat_count INTEGER NOT NULL DEFAULT 0,"
+                    + "until_date INTEGER NOT NULL DEFAULT 0)");
+            db.execSQL("CREATE TABLE event_recurrence_exceptions ("
+                    + "event_id INTEGER NOT NULL REFERENCES event_recurrence(event_id) ON DELETE CASCADE,"
+                    + "occurrence_start INTEGER NOT NULL,"
+                    + "PRIMARY KEY(event_id, occurrence_start)) WITHOUT ROWID");
+        }
+    };
+
+    // Version 9: user directory ordered by name and counted by role from indexes
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(SQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_users_name_id ON users(name, id)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_users_role ON users(role)");
+        }
+    };
+
+    // Version 10: persisted per-month event summaries, emptied by triggers whenever
+    // the events or recurrence rows they were computed from change
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE month_summaries ("
+                    + "month TEXT PRIMARY KEY,"
+                    + "zone TEXT NOT NULL,"
+                    + "presence INTEGER NOT NULL,"
+                    + "counts BLOB NOT NULL) WITHOUT ROWID");
+            // Any write can shift events across months, and recurring series reach
+            // months far from their first row, so every summary goes
+            String clear = " BEGIN DELETE FROM month_summaries; END";
+            db.execSQL("CREATE TRIGGER month_summaries_events_ai AFTER INSERT ON events" + clear);
+            db.execSQL("CREATE TRIGGER month_summaries_events_ad AFTER DELETE ON events" + clear);
+            db.execSQL("CREATE TRIGGER month_summaries_events_au AFTER UPDATE OF start_date, end_date ON events"
+                    + clear);
+            db.execSQL("CREATE TRIGGER month_summaries_recurrence_ai AFTER INSERT ON event_recurrence" + clear);
+            db.execSQL("CREATE TRIGGER month_summaries_recurrence_ad AFTER DELETE ON event_recurrence" + clear);
+            db.execSQL("CREATE TRIGGER month_summaries_recurrence_au AFTER UPDATE ON event_recurrence" + clear);
+            db.execSQL("CREATE TRIGGER month_summaries_exceptions_ai AFTER INSERT ON event_recurrence_exceptions"
+                    + clear);
+            db.execSQL("CREATE TRIGGER month_summaries_exceptions_ad AFTER DELETE ON event_recurrence_exceptions"
+                    + clear);
+        }
+    };
+
+    private static final Migration[] MIGRATIONS = {
+            MIGRATION_2_3,
+            MIGRATION_3_4,
+            MIGRATION_4_5,
+            MIGRATION_5_6,
+            MIGRATION_6_7,
+            MIGRATION_7_8,
+            MIGRATION_8_9,
+            MIGRATION_9_10
+    };
+
+    private DatabaseMigrations() {
+    }
+
+    /**
+     * Applies every registered step between the two versions, in order.
+     *
+     * @throws IllegalStateException if the chain has a gap
+     */
+    static void migrate(SQLiteDatabase db, int fromVersion, int toVersion) {
+        int version = fromVersion;
+        while (version < toVersion) {
+            Migration step = findMigration(version);
+            if (step == null || step.endVersion > toVersion) {
+                throw new IllegalStateException("No migration path from version " + version + " to " + toVersion);
+            }
+            Log.d(TAG, "Migrating schema from version " + step.startVersion + " to " + step.endVersion);
+            step.migrate(db);
+            version = step.endVersion;
+        }
+    }
+
+    /**
+     * Creates the external-content full-text index over {@code schema}'s events table
+     * and the triggers that keep it in step, as FTS5 where the platform SQLite has it
+     * and FTS4 otherwise. Also used for the archive files, whose triggers live in
+     * the file next to their table. Rows already in the table are not indexed.
+     *
+     * @return whether the index is FTS5
+     */
+    static boolean createSearchIndex(SQLiteDatabase db, String schema) {
+        if (createFts5Index(db, schema)) {
+            return true;
+        }
+        createFts4Index(db, schema);
+        return false;
+    }
+
+    /**
+     * FTS5 is not compiled into every platform SQLite build, so probe for it and
+     * report whether the table could be created.
+     */
+    private static boolean createFts5Index(SQLiteDatabase db, String schema) {
+        try {
+            db.execSQL("CREATE VIRTUAL TABLE " + schema + ".events_fts USING fts5("
+                    + "title, description, location, content='events', content_rowid='id')");
+        } catch (SQLiteException e) {
+            Log.w(TAG, "FTS5 unavailable, falling back to FTS4: " + e.getMessage());
+            return false;
+        }
+        db.execSQL("CREATE TRIGGER " + schema + ".events_fts_ai AFTER INSERT ON events BEGIN"
+                + " INSERT INTO events_fts(rowid, title, description, location)"
+                + " VALUES (new.id, new.title, new.description, new.location); END");
+        db.execSQL("CREATE TRIGGER " + schema + ".events_fts_ad AFTER DELETE ON events BEGIN"
+                + " INSERT INTO events_fts(events_fts, rowid, title, description, location)"
+                + " VALUES ('delete', old.id, old.title, old.description, old.location); END");
+        db.execSQL("CREATE TRIGGER " + schema + ".events_fts_au AFTER UPDATE OF title, description, location"
+                + " ON events BEGIN"
+                + " INSERT INTO events_fts(events_fts, rowid, title, description, location)"
+                + " VALUES ('delete', old.id, old.title, old.description, old.location);"
+                + " INSERT INTO events_fts(rowid, title, description, location)"
+                + " VALUES (new.id, new.title, new.description, new.location); END");
+        return true;
+    }
+
+    private static void createFts4Index(SQLiteDatabase db, String schema) {
+        db.execSQL("CREATE VIRTUAL TABLE " + schema + ".events_fts USING fts4("
+                + "content='events', title, description, location)");
+        // External-content FTS4 reads the old row when deleting, so removal must run BEFORE the change
+        db.execSQL("CREATE TRIGGER " + schema + ".events_fts_bd BEFORE DELETE ON events BEGIN"
+                + " DELETE FROM events_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER " + schema + ".events_fts_bu BEFORE UPDATE OF title, description, location"
+                + " ON events BEGIN"
+                + " DELETE FROM events_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER " + schema + ".events_fts_ai AFTER INSERT ON events BEGIN"
+                + " INSERT INTO events_fts(docid, title, description, location)"
+                + " VALUES (new.id, new.title, new.description, new.location); END");
+        db.execSQL("CREATE TRIGGER " + schema + ".events_fts_au AFTER UPDATE OF title, description, location"
+                + " ON events BEGIN"
+                + " INSERT INTO events_fts(docid, title, description, location)"
+                + " VALUES (new.id, new.title, new.description, new.location); END");
+    }
+
+    private static Migration findMigration(int startVersion) {
+        for (Migration migration : MIGRATIONS) {
+            if (migration.startVersion == startVersion) {
+                return migration;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.sems.database;
+
+import com.example.sems.models.Event;
+import com.example.sems.models.EventSummary;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of per-day event data in front of {@link DatabaseHelper}. Each
+ * local day holds either its full event list or just its event count, and entries
+ * are evicted least-recently-used once either the entry limit or the approximate
+ * byte budget is exceeded. Writes invalidate exactly the days an event covers.
+ * Thread-safe; hit and miss counters are exposed for sizing.
+ */
+public final class EventCache {
+    static final int DEFAULT_MAX_ENTRIES = 400;
+    static final long DEFAULT_MAX_BYTES = 2L * 1024 * 1024;
+
+    // Rough per-object overheads for the byte estimate
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+    private static final int EVENT_OVERHEAD_BYTES = 96;
+
+    private static final class DayEntry {
+        final int count;
+        final List<EventSummary> events; // null for count-only entries
+        final long bytes;
+
+        DayEntry(int count, List<EventSummary> events, long bytes) {
+            this.count = count;
+            this.events = events;
+            this.bytes = bytes;
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<LocalDate, DayEntry> days = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+
+    // The upcoming list is only ever asked for "from today", so one slot is enough
+    private long upcomingFrom = Long.MIN_VALUE;
+    private List<EventSummary> upcoming;
+
+    // Bumped by every invalidation; a load that straddles a write must not be stored
+    private long writeGeneration;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    EventCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    EventCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /** Call before querying; pass the value to the matching put. */
+    synchronized long beginLoad() {
+        return writeGeneration;
+    }
+
+    /** Cached summaries of the events on {@code day}, or null on a miss. */
+    synchronized List<EventSummary> getEvents(LocalDate day) {
+        DayEntry entry = days.get(day);
+        if (entry != null && entry.events != null) {
+            hitCount++;
+            return new ArrayList<>(entry.events);
+        }
+        missCount++;
+        return null;
+    }
+
+    synchronized void putEvents(long loadGeneration, LocalDate day, List<EventSummary> events) {
+        if (loadGeneration != writeGeneration) {
+            return;
+        }
+        long bytes = ENTRY_OVERHEAD_BYTES;
+        for (EventSummary event : events) {
+            bytes += estimateBytes(event);
+        }
+        put(day, new DayEntry(events.size(), Collections.unmodifiableList(new ArrayList<>(events)), bytes));
+    }
+
+    /**
+     * Fills {@code counts} for the consecutive days starting at {@code from} if every
+     * one of them is cached. Returns false, counting a single miss, otherwise.
+     */
+    synchronized boolean getCounts(LocalDate from, int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            DayEntry entry = days.get(from.plusDays(i));
+            if (entry == null) {
+                missCount++;
+                Arrays.fill(counts, 0);
+                return false;
+            }
+            counts[i] = entry.count;
+        }
+        hitCount++;
+        return true;
+    }
+
+    synchronized void putCounts(long loadGeneration, LocalDate from, int[] counts) {
+        if (loadGeneration != writeGeneration) {
+            return;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            LocalDate day = from.plusDays(i);
+            // Never downgrade a full list to a bare count
+            DayEntry existing = days.get(day);
+            if (existing == null || existing.events == null) {
+                put(day, new DayEntry(counts[i], null, ENTRY_OVERHEAD_BYTES));
+            }
+        }
+    }
+
+    synchronized List<EventSummary> getUpcoming(long fromMillis) {
+        if (upcoming != null && upcomingFrom == fromMillis) {
+            hitCount++;
+            return new ArrayList<>(upcoming);
+        }
+        missCount++;
+        return null;
+    }
+
+    synchronized void putUpcoming(long loadGeneration, long fromMillis, List<EventSummary> events) {
+        if (loadGeneration != writeGeneration) {
+            return;
+        }
+        upcomingFrom = fromMillis;
+        upcoming = Collections.unmodifiableList(new ArrayList<>(events));
+    }
+
+    /** Drops every day from the start to the end of the event, plus the upcoming list. */
+    synchronized void invalidate(long startMillis, long endMillis) {
+        writeGeneration++;
+        upcoming = null;
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate first = Instant.ofEpochMilli(startMillis).atZone(zone).toLocalDate();
+        LocalDate last = Instant.ofEpochMilli(Math.max(startMillis, endMillis)).atZone(zone).toLocalDate();
+        // A span longer than the cache can hold would touch every entry anyway
+        if (first.plusDays(maxEntries).isBefore(last)) {
+            clearDays();
+            return;
+        }
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            remove(day);
+        }
+    }
+
+    synchronized void invalidate(Event event) {
+        invalidate(event.getStartMillis(), Math.max(event.getStartMillis(), event.getEndMillis()));
+    }
+
+    public synchronized void clear() {
+        writeGeneration++;
+        clearDays();
+        upcoming = null;
+    }
+
+    public synchronized long getHitCount() { return hitCount; }
+
+    public synchronized long getMissCount() { return missCount; }
+
+    public synchronized long getEvictionCount() { return evictionCount; }
+
+    public synchronized int getEntryCount() { return days.size(); }
+
+    public synchronized long getApproximateBytes() { return currentBytes; }
+
+    @Override
+    public synchronized String toString() {
+        return "EventCache{entries=" + days.size() + ", bytes=" + currentBytes
+                + ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + "}";
+    }
+
+    private void put(LocalDate day, DayEntry entry) {
+        remove(day);
+        days.put(day, entry);
+        currentBytes += entry.bytes;
+        trim();
+    }
+
+    private void remove(LocalDate day) {
+        DayEntry removed = days.remove(day);
+        if (removed != null) {
+            currentBytes -= removed.bytes;
+        }
+    }
+
+    private void clearDays() {
+        days.clear();
+        currentBytes = 0;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<LocalDate, DayEntry>> it = days.entrySet().iterator();
+        while ((days.size() > maxEntries || currentBytes > maxBytes) && it.hasNext()) {
+            currentBytes -= it.next().getValue().bytes;
+            it.remove();
+            evictionCount++;
+        }
+    }
+
+    private static long estimateBytes(EventSummary event) {
+        // Strings are UTF-16 in memory
+        return EVENT_OVERHEAD_BYTES + 2L * (length(event.getTitle()) + length(event.getLocation()));
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
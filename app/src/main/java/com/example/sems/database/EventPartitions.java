@@ -0,0 +1,391 @@
+package com.example.sems.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.util.Log;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Archive of past years' events, one SQLite file per year next to the main
+ * database, attached to the connection as schema {@code events_<year>}. Each file
+ * holds an {@code events} table with the main table's columns, an
+ * {@code events_fts} full-text index over it kept in step by triggers in the
+ * same file, and a {@code partition_info} table with its row counts, longest
+ * event duration and the time range it covers, so totals, routing and search
+ * never have to scan it.
+ * <p>
+ * New events never go to a partition: {@link #archivePastYears} moves rows out
+ * of the main table and compacts the file afterwards, and {@link #update} and
+ * {@link #delete} edit rows already archived. Event ids are AUTOINCREMENT, so an
+ * id names one row across the main table and every partition.
+ * Attachments are per connection, which is fine here because the helper never
+ * enables write-ahead logging and so keeps a single connection.
+ */
+final class EventPartitions {
+    private static final String TAG = "EventPartitions";
+
+    // The current and previous year stay in the main table
+    static final int HOT_YEARS = 2;
+    // SQLite attaches at most 10 databases by default; once full, older years join the oldest file
+    private static final int MAX_ATTACHED = 9;
+
+    // Rows archived for a year: everything starting in it except series
+    private static final String MOVE_SELECTION = "start_date >= ? AND start_date < ?"
+            + " AND id NOT IN (SELECT event_id FROM main.event_recurrence)";
+
+    private static final Pattern FILE_YEAR = Pattern.compile("-events-(\\d{4})\\.db$");
+
+    /** One attached archive file. */
+    static final class Partition {
+        final String schema;
+        final long rangeStart;
+        final long rangeEnd;
+        final long maxSpan;
+        final Map<String, Long> counters;
+        // Whether events_fts is FTS5 or FTS4; null if the index could not be built
+        final Boolean fts5;
+
+        Partition(String schema, Map<String, Long> info, Boolean fts5) {
+            this.schema = schema;
+            this.fts5 = fts5;
+            this.rangeStart = info.getOrDefault("range_start", Long.MAX_VALUE);
+            this.rangeEnd = info.getOrDefault("range_end", Long.MIN_VALUE);
+            this.maxSpan = info.getOrDefault("max_span", 0L);
+            this.counters = info;
+        }
+
+        /** Whether any event stored here can overlap [from, to). */
+        boolean overlaps(long from, long to) {
+            return rangeStart < to && rangeEnd + maxSpan > from;
+        }
+    }
+
+    // Newest first; replaced wholesale so readers never see a partial list
+    private volatile List<Partition> attached = Collections.emptyList();
+
+    List<Partition> getAttached() {
+        return attached;
+    }
+
+    List<Partition> overlapping(long from, long to) {
+        List<Partition> result = new ArrayList<>();
+        for (Partition partition : attached) {
+            if (partition.overlaps(from, to)) {
+                result.add(partition);
+            }
+        }
+        return result;
+    }
+
+    /** Sum of a dashboard counter over every partition. */
+    long counter(String name) {
+        long total = 0;
+        for (Partition partition : attached) {
+            Long value = partition.counters.get(name);
+            if (value != null) {
+                total += value;
+            }
+        }
+        return total;
+    }
+
+    /** The partition holding event {@code id}, or null if it is not archived. */
+    Partition holding(SQLiteDatabase db, int id) {
+        String[] args = {String.valueOf(id)};
+        for (Partition partition : attached) {
+            Cursor cursor = db.rawQuery("SELECT 1 FROM " + partition.schema + ".events WHERE id = ?", args);
+            try {
+                if (cursor.moveToFirst()) {
+                    return partition;
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes {@code values} to an archived event. The row stays in its file even
+     * if it now starts in another year; the file's range widens to [start, end)
+     * so that calendar queries keep routing to it.
+     *
+     * @return number of rows updated
+     */
+    int update(SQLiteDatabase db, Partition partition, int id, ContentValues values, long start, long end) {
+        int rows;
+        db.beginTransaction();
+        try {
+            rows = db.update(partition.schema + ".events", values, "id = ?", new String[]{String.valueOf(id)});
+            if (rows > 0) {
+                refreshInfo(db, partition.schema, start, end);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        if (rows > 0) {
+            reload(db, partition.schema);
+        }
+        return rows;
+    }
+
+    /** Deletes an archived event and recounts its file. @return number of rows deleted */
+    int delete(SQLiteDatabase db, Partition partition, int id) {
+        int rows;
+        db.beginTransaction();
+        try {
+            rows = db.delete(partition.schema + ".events", "id = ?", new String[]{String.valueOf(id)});
+            if (rows > 0) {
+                refreshInfo(db, partition.schema, partition.rangeStart, partition.rangeEnd);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        if (rows > 0) {
+            reload(db, partition.schema);
+        }
+        return rows;
+    }
+
+    /** Attaches every archive file found next to the main database; call from onOpen. */
+    void attachExisting(SQLiteDatabase db) {
+        String prefix = archivePrefix(db);
+        File[] files = prefix != null ? archiveDirectory(db).listFiles((dir, name) -> name.startsWith(prefix)) : null;
+        if (files == null) {
+            return;
+        }
+        List<Partition> found = new ArrayList<>();
+        for (File file : files) {
+            Matcher matcher = FILE_YEAR.matcher(file.getName());
+            if (!matcher.find()) {
+                continue;
+            }
+            String schema = "events_" + matcher.group(1);
+            try {
+                db.execSQL("ATTACH DATABASE ? AS " + schema, new Object[]{file.getPath()});
+                found.add(new Partition(schema, readInfo(db, schema), ensureSearchIndex(db, schema)));
+            } catch (SQLiteException e) {
+                Log.e(TAG, "Could not attach " + file.getName() + ": " + e.getMessage(), e);
+            }
+        }
+        publish(found);
+        Log.d(TAG, "Attached " + found.size() + " event partitions");
+    }
+
+    /**
+     * Moves events of every year before the hot window into its archive file,
+     * then compacts the files that changed. Series rows stay in the main table
+     * because their occurrences extend into the present. Must be called outside
+     * a transaction.
+     *
+     * @return number of events moved
+     */
+    int archivePastYears(SQLiteDatabase db) {
+        if (archivePrefix(db) == null) {
+            return 0;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        int firstHotYear = LocalDate.now(zone).getYear() - (HOT_YEARS - 1);
+        long cutoff = yearStart(firstHotYear, zone);
+
+        int moved = 0;
+        long next = nextArchivableStart(db, Long.MIN_VALUE, cutoff);
+        while (next != Long.MIN_VALUE) {
+            int year = Instant.ofEpochMilli(next).atZone(zone).getYear();
+            long start = yearStart(year, zone);
+            long end = yearStart(year + 1, zone);
+            moved += archiveYear(db, year, start, end);
+            next = nextArchivableStart(db, end, cutoff);
+        }
+        if (moved > 0) {
+            Log.d(TAG, "Archived " + moved + " events from before " + firstHotYear);
+        }
+        return moved;
+    }
+
+    // Earliest archivable start in [from, cutoff), or Long.MIN_VALUE when there is none
+    private long nextArchivableStart(SQLiteDatabase db, long from, long cutoff) {
+        Cursor cursor = db.rawQuery("SELECT MIN(start_date) FROM main.events WHERE " + MOVE_SELECTION,
+                new String[]{String.valueOf(from), String.valueOf(cutoff)});
+        try {
+            return cursor.moveToFirst() && !cursor.isNull(0) ? cursor.getLong(0) : Long.MIN_VALUE;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private int archiveYear(SQLiteDatabase db, int year, long start, long end) {
+        Partition target = find(start, end);
+        String schema;
+        if (target != null) {
+            schema = target.schema;
+        } else if (attached.size() >= MAX_ATTACHED) {
+            // Out of attachment slots: widen the oldest file instead
+            schema = attached.get(attached.size() - 1).schema;
+        } else {
+            schema = "events_" + year;
+            File file = new File(archiveDirectory(db), archivePrefix(db) + year + ".db");
+            db.execSQL("ATTACH DATABASE ? AS " + schema, new Object[]{file.getPath()});
+        }
+
+        String[] range = {String.valueOf(start), String.valueOf(end)};
+        int moved;
+        db.beginTransaction();
+        try {
+            createSchema(db, schema);
+            db.execSQL("INSERT INTO " + schema + ".events"
+                    + " (id, title, description, start_date, end_date, location, organizer, is_active, location_key)"
+                    + " SELECT id, title, description, start_date, end_date, location, organizer, is_active, location_key"
+                    + " FROM main.events WHERE " + MOVE_SELECTION, range);
+            // The main table's triggers keep its counters, search and span indexes in step
+            moved = db.delete("main.events", MOVE_SELECTION, range);
+            refreshInfo(db, schema, start, end);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        db.execSQL("VACUUM " + schema);
+        reload(db, schema);
+        return moved;
+    }
+
+    private static void createSchema(SQLiteDatabase db, String schema) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + schema + ".events ("
+                + "id INTEGER PRIMARY KEY,"
+                + "title TEXT NOT NULL,"
+                + "description TEXT NOT NULL,"
+                + "start_date INTEGER NOT NULL,"
+                + "end_date INTEGER NOT NULL,"
+                + "location TEXT NOT NULL,"
+                + "organizer TEXT NOT NULL,"
+                + "is_active INTEGER NOT NULL DEFAULT 1,"
+                + "location_key TEXT NOT NULL DEFAULT '')");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + schema + ".idx_events_start_date ON events(start_date)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + schema
+                + ".idx_events_organizer_start ON events(organizer, start_date)");
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + schema + ".partition_info ("
+                + "name TEXT PRIMARY KEY, value INTEGER NOT NULL) WITHOUT ROWID");
+        if (searchIndexKind(db, schema) == null) {
+            DatabaseMigrations.createSearchIndex(db, schema);
+            // Files archived before the index existed already hold rows
+            db.execSQL("INSERT INTO " + schema + ".events_fts(events_fts) VALUES('rebuild')");
+        }
+    }
+
+    // Brings a file attached at open up to the current schema; null if that failed
+    private static Boolean ensureSearchIndex(SQLiteDatabase db, String schema) {
+        try {
+            createSchema(db, schema);
+            return searchIndexKind(db, schema);
+        } catch (SQLiteException e) {
+            Log.e(TAG, "Could not index " + schema + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    // Whether the file's events_fts is FTS5 (true) or FTS4 (false), or null if it has none
+    private static Boolean searchIndexKind(SQLiteDatabase db, String schema) {
+        Cursor cursor = db.rawQuery("SELECT sql FROM " + schema + ".sqlite_master WHERE name = 'events_fts'", null);
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0).toLowerCase(Locale.ROOT).contains("fts5") : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void refreshInfo(SQLiteDatabase db, String schema, long start, long end) {
+        Map<String, Long> previous = readInfo(db, schema);
+        long rangeStart = Math.min(start, previous.getOrDefault("range_start", start));
+        long rangeEnd = Math.max(end, previous.getOrDefault("range_end", end));
+
+        String info = schema + ".partition_info";
+        db.execSQL("DELETE FROM " + info);
+        db.execSQL("INSERT INTO " + info + "(name, value) SELECT 'events', COUNT(*) FROM " + schema + ".events");
+        db.execSQL("INSERT INTO " + info + "(name, value)"
+                + " SELECT 'events:' || organizer, COUNT(*) FROM " + schema + ".events GROUP BY organizer");
+        db.execSQL("INSERT INTO " + info + "(name, value)"
+                + " SELECT 'max_span', IFNULL(MAX(end_date - start_date), 0) FROM " + schema + ".events");
+        db.execSQL("INSERT INTO " + info + "(name, value) VALUES ('range_start', ?), ('range_end', ?)",
+                new Object[]{rangeStart, rangeEnd});
+    }
+
+    private static Map<String, Long> readInfo(SQLiteDatabase db, String schema) {
+        Map<String, Long> info = new HashMap<>();
+        Cursor cursor;
+        try {
+            cursor = db.rawQuery("SELECT name, value FROM " + schema + ".partition_info", null);
+        } catch (SQLiteException e) {
+            // A file attached before its first archive run has no table yet
+            return info;
+        }
+        try {
+            while (cursor.moveToNext()) {
+                info.put(cursor.getString(0), cursor.getLong(1));
+            }
+        } finally {
+            cursor.close();
+        }
+        return info;
+    }
+
+    private void reload(SQLiteDatabase db, String schema) {
+        List<Partition> updated = new ArrayList<>();
+        for (Partition partition : attached) {
+            if (!partition.schema.equals(schema)) {
+                updated.add(partition);
+            }
+        }
+        updated.add(new Partition(schema, readInfo(db, schema), searchIndexKind(db, schema)));
+        publish(updated);
+    }
+
+    private void publish(List<Partition> partitions) {
+        partitions.sort(Comparator.comparingLong((Partition partition) -> partition.rangeStart).reversed());
+        attached = Collections.unmodifiableList(partitions);
+    }
+
+    private Partition find(long start, long end) {
+        for (Partition partition : attached) {
+            if (partition.rangeStart <= start && partition.rangeEnd >= end) {
+                return partition;
+            }
+        }
+        return null;
+    }
+
+    private static long yearStart(int year, ZoneId zone) {
+        return LocalDate.of(year, 1, 1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static File archiveDirectory(SQLiteDatabase db) {
+        return new File(db.getPath()).getParentFile();
+    }
+
+    // "SEMS-events-" for SEMS.db; null for an in-memory database
+    private static String archivePrefix(SQLiteDatabase db) {
+        String path = db.getPath();
+        if (path == null || path.equals(":memory:")) {
+            return null;
+        }
+        String name = new File(path).getName();
+        int dot = name.lastIndexOf('.');
+        return (dot > 0 ? name.substring(0, dot) : name) + "-events-";
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.sems.database;
+
+import android.database.Cursor;
+
+import com.example.sems.models.Event;
+import com.example.sems.models.EventSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads event rows from a cursor, resolving every column index once when it is
+ * created instead of once per column per row. Works on both the full event
+ * columns and the {@link #SUMMARY_COLUMNS} projection; {@link #toEvent} needs the
+ * former.
+ */
+final class EventRowMapper {
+    // Column names match DatabaseHelper's events table
+    static final String SUMMARY_COLUMNS = "id, title, start_date, end_date, location";
+    static final String EVENT_COLUMNS = "id, title, description, start_date, end_date, location, organizer, is_active";
+
+    private final int id;
+    private final int title;
+    private final int start;
+    private final int end;
+    private final int location;
+    // -1 on a summary projection
+    private final int description;
+    private final int organizer;
+    private final int active;
+
+    EventRowMapper(Cursor cursor) {
+        id = cursor.getColumnIndexOrThrow("id");
+        title = cursor.getColumnIndexOrThrow("title");
+        start = cursor.getColumnIndexOrThrow("start_date");
+        end = cursor.getColumnIndexOrThrow("end_date");
+        location = cursor.getColumnIndexOrThrow("location");
+        description = cursor.getColumnIndex("description");
+        organizer = cursor.getColumnIndex("organizer");
+        active = cursor.getColumnIndex("is_active");
+    }
+
+    /** The summary columns prefixed with a table alias, e.g. "e.id, e.title, ...". */
+    static String summaryColumns(String alias) {
+        return alias + ".id, " + alias + ".title, " + alias + ".start_date, " + alias + ".end_date, "
+                + alias + ".location";
+    }
+
+    Event toEvent(Cursor cursor) {
+        if (description < 0 || organizer < 0 || active < 0) {
+            throw new IllegalStateException("Cursor does not hold full event rows");
+        }
+        return Event.builder()
+                .setId(cursor.getInt(id))
+                .setTitle(cursor.getString(title))
+                .setDescription(cursor.getString(description))
+                .setStartMillis(cursor.getLong(start))
+                .setEndMillis(cursor.getLong(end))
+                .setLocation(cursor.getString(location))
+                .setOrganizer(cursor.getString(organizer))
+                .setActive(cursor.getInt(active) == 1)
+                .build();
+    }
+
+    EventSummary toSummary(Cursor cursor) {
+        return new EventSummary(cursor.getInt(id), cursor.getString(title), cursor.getLong(start),
+                cursor.getLong(end), cursor.getString(location));
+    }
+
+    /** Every remaining row as a full event; does not close the cursor. */
+    static List<Event> readEvents(Cursor cursor) {
+        List<Event> events = new ArrayList<>();
+        EventRowMapper mapper = new EventRowMapper(cursor);
+        while (cursor.moveToNext()) {
+            events.add(mapper.toEvent(cursor));
+        }
+        return events;
+    }
+
+    /** Every remaining row as a summary; does not close the cursor. */
+    static List<EventSummary> readSummaries(Cursor cursor) {
+        List<EventSummary> summaries = new ArrayList<>();
+        EventRowMapper mapper = new EventRowMapper(cursor);
+        while (cursor.moveToNext()) {
+            summaries.add(mapper.toSummary(cursor));
+        }
+        return summaries;
+    }
+}
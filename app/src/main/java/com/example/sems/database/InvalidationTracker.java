@@ -0,0 +1,52 @@
+package com.example.sems.database;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-table write counters. {@link DatabaseHelper} bumps a table's version after
+ * every write to it, and {@link TrackedQuery} compares versions to decide whether
+ * a query has to run again. Checking costs no database access.
+ */
+public final class InvalidationTracker {
+    public static final String TABLE_USERS = "users";
+    public static final String TABLE_EVENTS = "events";
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    InvalidationTracker() {
+    }
+
+    /** Records a write to each of the given tables. */
+    public void notifyChanged(String... tables) {
+        for (String table : tables) {
+            counterFor(table).incrementAndGet();
+        }
+    }
+
+    public long getVersion(String table) {
+        return counterFor(table).get();
+    }
+
+    long[] snapshot(String[] tables) {
+        long[] snapshot = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            snapshot[i] = getVersion(tables[i]);
+        }
+        return snapshot;
+    }
+
+    boolean hasChangedSince(String[] tables, long[] snapshot) {
+        for (int i = 0; i < tables.length; i++) {
+            if (getVersion(tables[i]) != snapshot[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AtomicLong counterFor(String table) {
+        return versions.computeIfAbsent(table, name -> new AtomicLong());
+    }
+}
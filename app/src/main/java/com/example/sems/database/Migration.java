@@ -0,0 +1,20 @@
+package com.example.sems.database;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * A single step in the schema history that moves an existing database from
+ * {@code startVersion} to {@code endVersion} in place, without dropping data.
+ * Migrations run inside the upgrade transaction opened by SQLiteOpenHelper.
+ */
+public abstract class Migration {
+    public final int startVersion;
+    public final int endVersion;
+
+    public Migration(int startVersion, int endVersion) {
+        this.startVersion = startVersion;
+        this.endVersion = endVersion;
+    }
+
+    public abstract void migrate(SQLiteDatabase db);
+}
@@ -0,0 +1,150 @@
+package com.example.sems.database;
+
+import android.util.Log;
+
+import com.example.sems.models.MonthData;
+import com.example.sems.models.MonthSummary;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Month grids for the calendar pager, shared by every page and built from the
+ * persisted {@link MonthSummary} of each month. The month on screen
+ * and its neighbours are loaded on the I/O thread before they are swiped to, so
+ * a page created for one of them can show its finished grid from
+ * {@link #peek} on the first frame. Months more than {@link #KEEP_RADIUS} away
+ * from the current one are dropped. A month loaded before the last write to
+ * events is still returned by {@link #peek} but reloaded on the next
+ * {@link #refresh}, and listeners get the new grid. Use from the main thread.
+ */
+public final class MonthDataCache {
+    private static final String TAG = "MonthDataCache";
+
+    /** Months on each side of the current one that are loaded ahead. */
+    static final int PREFETCH_RADIUS = 1;
+    /** Months on each side of the current one that stay cached. */
+    static final int KEEP_RADIUS = 3;
+
+    /** Receives a month's grid whenever it is (re)loaded. */
+    public interface Listener {
+        void onMonthLoaded(MonthData data);
+    }
+
+    private static final class Entry {
+        MonthData data;
+        // Events table version the data was loaded at
+        long version = -1;
+        boolean loading;
+    }
+
+    private final AsyncDatabase asyncDb;
+    private final InvalidationTracker tracker;
+    private final Map<YearMonth, Entry> months = new HashMap<>();
+    private final Map<YearMonth, List<Listener>> listeners = new HashMap<>();
+
+    public MonthDataCache(AsyncDatabase asyncDb) {
+        this.asyncDb = asyncDb;
+        this.tracker = asyncDb.getInvalidationTracker();
+    }
+
+    /** The cached grid for {@code month}, possibly from before the last write, or null. */
+    public MonthData peek(YearMonth month) {
+        Entry entry = months.get(month);
+        return entry != null ? entry.data : null;
+    }
+
+    public void addListener(YearMonth month, Listener listener) {
+        listeners.computeIfAbsent(month, key -> new ArrayList<>()).add(listener);
+    }
+
+    public void removeListener(YearMonth month, Listener listener) {
+        List<Listener> forMonth = listeners.get(month);
+        if (forMonth != null && forMonth.remove(listener) && forMonth.isEmpty()) {
+            listeners.remove(month);
+        }
+    }
+
+    /**
+     * Makes {@code month} the one on screen: loads it and its neighbours if they
+     * are missing or stale, and drops months that have scrolled far away.
+     */
+    public void setCurrent(YearMonth month) {
+        refresh(month);
+        for (int offset = 1; offset <= PREFETCH_RADIUS; offset++) {
+            refresh(month.minusMonths(offset));
+            refresh(month.plusMonths(offset));
+        }
+        evictFarFrom(month);
+    }
+
+    /** Loads {@code month} unless a current grid is cached or already loading. */
+    public void refresh(YearMonth month) {
+        Entry entry = months.get(month);
+        if (entry == null) {
+            entry = new Entry();
+            months.put(month, entry);
+        }
+        long version = tracker.getVersion(InvalidationTracker.TABLE_EVENTS);
+        if (entry.loading || (entry.data != null && entry.version == version)) {
+            return;
+        }
+        entry.loading = true;
+        final Entry loading = entry;
+        asyncDb.execute(db -> {
+                    MonthSummary summary = db.getMonthSummary(month);
+                    return summary != null ? MonthData.build(month, summary) : null;
+                },
+                new AsyncDatabase.Callback<MonthData>() {
+                    @Override
+                    public void onResult(MonthData data) {
+                        loading.loading = false;
+                        // Null when counting failed: keep what is shown and retry on the next
+                        // refresh. A different entry means the month was evicted meanwhile.
+                        if (data == null || months.get(month) != loading) {
+                            return;
+                        }
+                        loading.data = data;
+                        loading.version = version;
+                        List<Listener> forMonth = listeners.get(month);
+                        if (forMonth != null) {
+                            for (Listener listener : new ArrayList<>(forMonth)) {
+                                listener.onMonthLoaded(data);
+                            }
+                        }
+                        // A write landed while this ran; load once more
+                        if (version != tracker.getVersion(InvalidationTracker.TABLE_EVENTS)) {
+                            refresh(month);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        loading.loading = false;
+                        Log.e(TAG, "Error loading " + month + ": " + e.getMessage(), e);
+                    }
+                });
+    }
+
+    /** Forgets every month, e.g. when the owning screen goes away. */
+    public void clear() {
+        months.clear();
+        listeners.clear();
+    }
+
+    private void evictFarFrom(YearMonth center) {
+        Iterator<Map.Entry<YearMonth, Entry>> it = months.entrySet().iterator();
+        while (it.hasNext()) {
+            YearMonth month = it.next().getKey();
+            if (Math.abs(ChronoUnit.MONTHS.between(center, month)) > KEEP_RADIUS
+                    && !listeners.containsKey(month)) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.sems.database;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.sems.models.User;
+
+/**
+ * The signed-in user, shared by every activity and fragment. Holds one immutable
+ * {@link User} snapshot, set by {@link DatabaseHelper#authenticate} at login and
+ * replaced or dropped only when {@link DatabaseHelper#updateUser} or
+ * {@link DatabaseHelper#deleteUser} touches that user, so screens and role checks
+ * read it without querying.
+ */
+public final class SessionStore {
+    private static final SessionStore INSTANCE = new SessionStore();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private volatile User currentUser;
+
+    private SessionStore() {
+    }
+
+    public static SessionStore getInstance() {
+        return INSTANCE;
+    }
+
+    /** The signed-in user, or null before login or after the account was deleted. */
+    public User getCurrentUser() {
+        return currentUser;
+    }
+
+    public boolean isAdmin() {
+        User user = currentUser;
+        return user != null && user.isAdmin();
+    }
+
+    public synchronized void clear() {
+        currentUser = null;
+    }
+
+    /**
+     * Hands the user with {@code email} to {@code callback} on the main thread, after
+     * this call returns, without querying when the snapshot is that user. After the
+     * process was restarted on a later screen the snapshot is empty, so the user
+     * named in that screen's intent is loaded once and kept. Any other user is
+     * loaded from the database and leaves the snapshot alone.
+     */
+    public void getUser(AsyncDatabase asyncDb, String email, AsyncDatabase.Callback<User> callback) {
+        User user = currentUser;
+        if (isUser(user, email)) {
+            MAIN_HANDLER.post(() -> callback.onResult(user));
+            return;
+        }
+        asyncDb.execute(db -> getUser(db, email), callback);
+    }
+
+    /** Same as the asynchronous variant, for code already on the I/O thread. */
+    public User getUser(DatabaseHelper db, String email) {
+        User user = currentUser;
+        if (isUser(user, email)) {
+            return user;
+        }
+        if (email == null) {
+            return null;
+        }
+        user = db.getUserByEmail(email);
+        synchronized (this) {
+            if (currentUser == null) {
+                currentUser = user;
+            }
+        }
+        return user;
+    }
+
+    private static boolean isUser(User user, String email) {
+        return user != null && email != null && user.getEmail().equalsIgnoreCase(email);
+    }
+
+    synchronized void setCurrentUser(User user) {
+        currentUser = user;
+    }
+
+    // Called by DatabaseHelper after a user row changed
+    synchronized void onUserUpdated(DatabaseHelper db, int id) {
+        if (currentUser != null && currentUser.getId() == id) {
+            currentUser = db.getUser(id);
+        }
+    }
+
+    synchronized void onUserDeleted(int id) {
+        if (currentUser != null && currentUser.getId() == id) {
+            currentUser = null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.sems.database;
+
+import android.os.SystemClock;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A query bound to the tables it reads. {@link #refresh} re-runs it only when one
+ * of those tables has been written since the last successful run, or when the
+ * parameter differs from the one that run used; otherwise the last result is
+ * handed back without touching the database.
+ * <p>
+ * The last result is kept per key for the life of the process, so a screen that
+ * is torn down and rebuilt (switching tabs, rotation) gets its data back for free
+ * when nothing changed. Create with {@link AsyncDatabase#track}, call
+ * {@link #dispose()} when the owning view goes away, and use it from the main
+ * thread only.
+ *
+ * @param <P> parameter the query depends on besides table contents, e.g. a date
+ * @param <T> result type
+ */
+public final class TrackedQuery<P, T> {
+
+    /** Query body; receives the parameter passed to {@link #refresh}. */
+    public interface Body<P, T> {
+        T run(DatabaseHelper db, P param) throws Exception;
+    }
+
+    // Last successful run of a key
+    private static final class State {
+        Object param;
+        long[] versions;
+        long runAt;
+        Object result;
+    }
+
+    private static final int MAX_STATES = 64;
+    private static final Map<String, State> STATES = new LinkedHashMap<String, State>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, State> eldest) {
+            return size() > MAX_STATES;
+        }
+    };
+
+    private final AsyncDatabase asyncDb;
+    private final InvalidationTracker tracker;
+    private final String key;
+    private final Body<P, T> body;
+    private final AsyncDatabase.Callback<T> callback;
+    private final String[] tables;
+
+    // For results that also depend on the clock; 0 means table changes alone decide
+    private long maxAgeMillis;
+    // The state this instance last handed to its callback
+    private State delivered;
+    // Only the most recently started run is delivered
+    private int generation;
+    private boolean disposed;
+
+    TrackedQuery(AsyncDatabase asyncDb, InvalidationTracker tracker, String key, Body<P, T> body,
+                 AsyncDatabase.Callback<T> callback, String[] tables) {
+        this.asyncDb = asyncDb;
+        this.tracker = tracker;
+        this.key = key;
+        this.body = body;
+        this.callback = callback;
+        this.tables = tables.clone();
+    }
+
+    /**
+     * Treats a result older than {@code maxAgeMillis} as stale even if no table
+     * changed, for queries relative to the current time such as "upcoming" counts.
+     */
+    public TrackedQuery<P, T> setMaxAge(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+        return this;
+    }
+
+    /**
+     * Runs the query if its tables changed or {@code param} differs from the last
+     * run. A still-valid result this instance has not delivered yet is passed to
+     * the callback immediately instead.
+     *
+     * @return true if a query was started
+     */
+    @SuppressWarnings("unchecked")
+    public boolean refresh(P param) {
+        if (disposed) {
+            return false;
+        }
+        State state = STATES.get(key);
+        if (state != null && isCurrent(state, param)) {
+            if (state != delivered) {
+                delivered = state;
+                callback.onResult((T) state.result);
+            }
+            return false;
+        }
+        run(param);
+        return true;
+    }
+
+    /** Runs the query regardless of whether anything changed, e.g. for pull-to-refresh. */
+    public void forceRefresh(P param) {
+        if (!disposed) {
+            run(param);
+        }
+    }
+
+    /** Stops delivering results to this instance; the cached result stays available. */
+    public void dispose() {
+        disposed = true;
+        generation++;
+    }
+
+    private boolean isCurrent(State state, P param) {
+        boolean expired = maxAgeMillis > 0
+                && SystemClock.elapsedRealtime() - state.runAt > maxAgeMillis;
+        return !expired && Objects.equals(param, state.param)
+                && !tracker.hasChangedSince(tables, state.versions);
+    }
+
+    private void run(P param) {
+        final int runGeneration = ++generation;
+        // Anything written while this run is in flight leaves the result stale
+        final long[] versions = tracker.snapshot(tables);
+        final long startedAt = SystemClock.elapsedRealtime();
+        asyncDb.execute(db -> body.run(db, param), new AsyncDatabase.Callback<T>() {
+            @Override
+            public void onResult(T result) {
+                State state = new State();
+                state.param = param;
+                state.versions = versions;
+                state.runAt = startedAt;
+                state.result = result;
+                STATES.put(key, state);
+                if (runGeneration != generation) return;
+                delivered = state;
+                callback.onResult(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (runGeneration != generation) return;
+                // Nothing is cached, so the next refresh retries
+                callback.onError(e);
+            }
+        });
+    }
+}
@@ -2,6 +2,8 @@ package com.example.sems.fragments;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -10,6 +12,7 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -18,25 +21,28 @@ import androidx.viewpager2.widget.ViewPager2;
 import com.example.sems.CreateEventActivity;
 import com.example.sems.R;
 import com.example.sems.adapters.CalendarPagerAdapter;
-import com.example.sems.adapters.DayViewAdapter;
 import com.example.sems.adapters.EventAdapter;
 import com.example.sems.adapters.WeekViewAdapter;
-import com.example.sems.database.DatabaseHelper;
+import com.example.sems.database.AsyncDatabase;
+import com.example.sems.database.InvalidationTracker;
+import com.example.sems.database.MonthDataCache;
+import com.example.sems.database.SessionStore;
+import com.example.sems.database.TrackedQuery;
 import com.example.sems.interfaces.OnDateClickListener;
-import com.example.sems.models.Event;
+import com.example.sems.models.EventSummary;
 import com.example.sems.models.User;
+import com.example.sems.views.DayTimelineView;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.button.MaterialButtonToggleGroup;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class CalendarFragment extends Fragment implements OnDateClickListener {
     private static final String TAG = "CalendarFragment";
@@ -45,13 +51,15 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
     private static final int VIEW_MODE_WEEK = 2;
     private static final int VIEW_MODE_DAY = 3;
     private static final int VIEW_MODE_LIST = 4;
+    // Item holders created ahead for each list: a week's cells and about a screenful of rows
+    private static final int PREWARM_WEEK_ITEMS = 7;
+    private static final int PREWARM_LIST_ITEMS = 8;
     
     private ViewPager2 calendarViewPager;
     private TextView monthYearText;
     private CalendarPagerAdapter adapter;
     private MaterialButtonToggleGroup viewToggleGroup;
     private MaterialButton addEventButton;
-    private Map<String, Integer> eventCountMap;
     private final DateTimeFormatter monthYearFormatter = DateTimeFormatter.ofPattern("MMMM yyyy");
     private LocalDate selectedDate = LocalDate.now();
     private View monthView;
@@ -59,18 +67,35 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
     private View dayView;
     private View listView;
     private ViewGroup calendarContainer;
-    private DatabaseHelper dbHelper;
+    // Item views shared by the week and list RecyclerViews; one per view hierarchy
+    private RecyclerView.RecycledViewPool viewPool;
+    // Created once per view hierarchy and handed new data in place
+    private WeekViewAdapter weekAdapter;
+    private EventAdapter listAdapter;
+    private AsyncDatabase asyncDb;
+    // Month grids shared by the pager's pages, prefetched around the visible month
+    private MonthDataCache monthCache;
+    private YearMonth shownMonth = YearMonth.now();
     private User currentUser;
+    // Each view's query re-runs only when events change or it is asked for a different date
+    private TrackedQuery<LocalDate, int[]> weekQuery;
+    private TrackedQuery<LocalDate, List<EventSummary>> dayQuery;
+    private TrackedQuery<LocalDate, List<EventSummary>> listQuery;
+    // Monday of the week most recently requested from weekQuery
+    private LocalDate shownWeekStart;
+    // Day most recently requested from dayQuery
+    private LocalDate shownDay;
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        eventCountMap = new HashMap<>();
-        dbHelper = new DatabaseHelper(requireContext());
-        String userEmail = getArguments() != null ? getArguments().getString("user_email") : null;
-        if (userEmail != null) {
-            currentUser = dbHelper.getUserByEmail(userEmail);
-        }
+        asyncDb = AsyncDatabase.getInstance(requireContext());
+        monthCache = new MonthDataCache(asyncDb);
+    }
+
+    /** The month cache shared by the pages of the month pager. */
+    public MonthDataCache getMonthDataCache() {
+        return monthCache;
     }
 
     @Nullable
@@ -90,7 +115,14 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
         addEventButton = view.findViewById(R.id.addEventButton);
 
         // Initialize view container
-        calendarContainer = view.findViewById(R.id.calendarViewPager);
+        calendarContainer = view.findViewById(R.id.calendarContainer);
+        viewPool = new RecyclerView.RecycledViewPool();
+        weekAdapter = new WeekViewAdapter(this);
+        listAdapter = new EventAdapter(requireContext());
+        listAdapter.setOnItemClickListener(event -> {
+            // TODO: Handle event click (e.g., show event details)
+            Toast.makeText(requireContext(), "Event: " + event.getTitle(), Toast.LENGTH_SHORT).show();
+        });
 
         // Set up calendar adapter
         adapter = new CalendarPagerAdapter(this);
@@ -106,8 +138,12 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
             public void onPageSelected(int position) {
                 LocalDate date = LocalDate.now().plusMonths(position - initialPosition);
                 monthYearText.setText(date.format(monthYearFormatter));
+                // Load the months either side before they can be swiped to
+                shownMonth = YearMonth.from(date);
+                monthCache.setCurrent(shownMonth);
             }
         });
+        monthCache.setCurrent(shownMonth);
 
         // Set up view toggle group
         viewToggleGroup.addOnButtonCheckedListener((group, checkedId, isChecked) -> {
@@ -120,9 +156,33 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
         // Set initial view to month
         viewToggleGroup.check(R.id.btnMonth);
 
-        // Set up add event button
+        // Set up add event button; shown once the user has loaded in onResume
         setupAddEventButton();
         controlAddEventButtonVisibility();
+
+        setupQueries();
+
+        // Once the month is on screen, build the other views off the main thread
+        // so the first toggle to each only has to show it
+        view.post(this::prewarmViews);
+    }
+
+    private void setupQueries() {
+        // One grouped query for the whole week instead of a count per cell
+        weekQuery = asyncDb.track("calendar.week",
+                (db, startOfWeek) -> db.getEventCountsByDay(startOfWeek, startOfWeek.plusDays(7)),
+                this::showWeekCounts, InvalidationTracker.TABLE_EVENTS);
+
+        dayQuery = asyncDb.track("calendar.day", (db, day) -> {
+            // Convert LocalDate to Date for database query
+            Date date = Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+            return db.getEventsByDate(date);
+        }, this::showDayEvents, InvalidationTracker.TABLE_EVENTS);
+
+        listQuery = asyncDb.track("calendar.list", (db, today) -> {
+            Date from = Date.from(today.atStartOfDay(ZoneId.systemDefault()).toInstant());
+            return db.getUpcomingEvents(from);
+        }, this::showUpcomingEvents, InvalidationTracker.TABLE_EVENTS);
     }
 
     private int getViewMode(int checkedId) {
@@ -160,7 +220,7 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
     }
 
     private void controlAddEventButtonVisibility() {
-        if (currentUser != null && "admin".equals(currentUser.getRole())) {
+        if (currentUser != null && currentUser.isAdmin()) {
             addEventButton.setVisibility(View.VISIBLE);
         } else {
             addEventButton.setVisibility(View.GONE);
@@ -199,10 +259,9 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
     }
 
     private void refreshAllViews() {
-        // Refresh month view
-        if (adapter != null) {
-            adapter.notifyDataSetChanged();
-        }
+        // Reload the visible month and its neighbours if events changed; pages
+        // refresh their own month again when they start
+        monthCache.setCurrent(shownMonth);
 
         // Refresh week view if visible
         if (weekView != null && weekView.getVisibility() == View.VISIBLE) {
@@ -228,11 +287,14 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
         } catch (Exception e) {
             Log.e(TAG, "Error in onResume: " + e.getMessage());
         }
-        // Refresh user data and button visibility in onResume
+        // The session snapshot is current after any profile edit, so re-reading it is free
         String userEmail = getArguments() != null ? getArguments().getString("user_email") : null;
         if (userEmail != null) {
-            currentUser = dbHelper.getUserByEmail(userEmail);
-            controlAddEventButtonVisibility();
+            SessionStore.getInstance().getUser(asyncDb, userEmail, user -> {
+                if (getView() == null) return;
+                currentUser = user;
+                controlAddEventButtonVisibility();
+            });
         }
     }
 
@@ -252,10 +314,6 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
         // Implementation of loadEventsForSelectedDate method
     }
 
-    private void updateEventCountMap() {
-        // Implementation of updateEventCountMap method
-    }
-
     private void switchView(int viewMode) {
         // Hide all views first
         calendarViewPager.setVisibility(View.GONE);
@@ -292,26 +350,102 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
     }
 
     private View createWeekView() {
-        View view = LayoutInflater.from(requireContext()).inflate(R.layout.calendar_week_view, calendarContainer, false);
-        calendarContainer.addView(view);
-        view.setVisibility(View.GONE);
-        return view;
+        return setupWeekView(inflateView(R.layout.calendar_week_view));
     }
 
     private View createDayView() {
-        View view = LayoutInflater.from(requireContext()).inflate(R.layout.calendar_day_view, calendarContainer, false);
-        calendarContainer.addView(view);
-        view.setVisibility(View.GONE);
-        return view;
+        return setupDayView(inflateView(R.layout.calendar_day_view));
     }
 
     private View createListView() {
-        View view = LayoutInflater.from(requireContext()).inflate(R.layout.calendar_list_view, calendarContainer, false);
-        calendarContainer.addView(view);
+        return setupListView(inflateView(R.layout.calendar_list_view));
+    }
+
+    private View inflateView(int layout) {
+        return LayoutInflater.from(requireContext()).inflate(layout, calendarContainer, false);
+    }
+
+    private View setupWeekView(View view) {
+        RecyclerView weekDaysGrid = view.findViewById(R.id.weekDaysGrid);
+        weekDaysGrid.setLayoutManager(new GridLayoutManager(requireContext(), 1, GridLayoutManager.HORIZONTAL, false));
+        setupList(weekDaysGrid, weekAdapter, R.layout.week_day_item, PREWARM_WEEK_ITEMS);
+        return addHidden(view);
+    }
+
+    private View setupDayView(View view) {
+        return addHidden(view);
+    }
+
+    private View setupListView(View view) {
+        RecyclerView eventsListView = view.findViewById(R.id.eventsListView);
+        eventsListView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        setupList(eventsListView, listAdapter, R.layout.event_list_item, PREWARM_LIST_ITEMS);
+        return addHidden(view);
+    }
+
+    private View addHidden(View view) {
         view.setVisibility(View.GONE);
+        calendarContainer.addView(view);
         return view;
     }
 
+    /**
+     * Attaches {@code adapter} and the shared pool to {@code list}, then fills the
+     * pool with {@code count} holders of {@code viewType} (the adapter's item layout)
+     * one at a time while the main thread is idle.
+     */
+    private void setupList(RecyclerView list, RecyclerView.Adapter<?> adapter, int viewType, int count) {
+        list.setRecycledViewPool(viewPool);
+        list.setAdapter(adapter);
+        viewPool.setMaxRecycledViews(viewType, count);
+
+        RecyclerView.RecycledViewPool pool = viewPool;
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            private int created;
+
+            @Override
+            public boolean queueIdle() {
+                // Stop once the view hierarchy this pool belongs to is gone
+                if (pool != viewPool || getView() == null) {
+                    return false;
+                }
+                if (pool.getRecycledViewCount(viewType) < count) {
+                    pool.putRecycledView(adapter.createViewHolder(list, viewType));
+                }
+                return ++created < count;
+            }
+        });
+    }
+
+    // Inflates whichever alternate views have not been opened yet on a background thread
+    private void prewarmViews() {
+        if (getView() == null) {
+            return;
+        }
+        AsyncLayoutInflater inflater = new AsyncLayoutInflater(requireContext());
+        if (weekView == null) {
+            inflater.inflate(R.layout.calendar_week_view, calendarContainer, (view, resid, parent) -> {
+                if (getView() != null && weekView == null) {
+                    weekView = setupWeekView(view);
+                }
+            });
+        }
+        if (dayView == null) {
+            inflater.inflate(R.layout.calendar_day_view, calendarContainer, (view, resid, parent) -> {
+                if (getView() != null && dayView == null) {
+                    dayView = setupDayView(view);
+                }
+            });
+        }
+        if (listView == null) {
+            inflater.inflate(R.layout.calendar_list_view, calendarContainer, (view, resid, parent) -> {
+                if (getView() != null && listView == null) {
+                    listView = setupListView(view);
+                }
+            });
+        }
+    }
+
     private void updateWeekView() {
         if (weekView == null) return;
 
@@ -330,11 +464,21 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
                          weekDays.get(0).getYear();
         weekRangeText.setText(weekRange);
 
-        // Set up the RecyclerView
-        RecyclerView weekDaysGrid = weekView.findViewById(R.id.weekDaysGrid);
-        weekDaysGrid.setLayoutManager(new GridLayoutManager(requireContext(), 1, GridLayoutManager.HORIZONTAL, false));
-        WeekViewAdapter adapter = new WeekViewAdapter(weekDays, this, getDatabaseHelper());
-        weekDaysGrid.setAdapter(adapter);
+        shownWeekStart = startOfWeek;
+        if (weekQuery.refresh(startOfWeek)) {
+            weekView.findViewById(R.id.viewLoading).setVisibility(View.VISIBLE);
+        }
+    }
+
+    private void showWeekCounts(int[] eventCounts) {
+        weekView.findViewById(R.id.viewLoading).setVisibility(View.GONE);
+
+        List<LocalDate> weekDays = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            weekDays.add(shownWeekStart.plusDays(i));
+        }
+
+        weekAdapter.setWeek(weekDays, eventCounts);
     }
 
     private void updateDayView() {
@@ -345,49 +489,53 @@ public class CalendarFragment extends Fragment implements OnDateClickListener {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEEE, MMM d");
         dayHeaderText.setText(selectedDate.format(formatter));
 
-        // Set up the RecyclerView
-        RecyclerView dayScheduleList = dayView.findViewById(R.id.dayScheduleList);
-        dayScheduleList.setLayoutManager(new LinearLayoutManager(requireContext()));
-        
-        // Convert LocalDate to Date for database query
-        Date date = Date.from(selectedDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
-        List<Event> events = getDatabaseHelper().getEventsByDate(date);
-        
-        DayViewAdapter adapter = new DayViewAdapter(events);
-        dayScheduleList.setAdapter(adapter);
+        shownDay = selectedDate;
+        if (dayQuery.refresh(selectedDate)) {
+            dayView.findViewById(R.id.viewLoading).setVisibility(View.VISIBLE);
+        }
     }
 
-    private DatabaseHelper getDatabaseHelper() {
-        return dbHelper;
+    private void showDayEvents(List<EventSummary> events) {
+        dayView.findViewById(R.id.viewLoading).setVisibility(View.GONE);
+
+        DayTimelineView dayTimeline = dayView.findViewById(R.id.dayTimeline);
+        dayTimeline.setEvents(shownDay, events);
     }
 
     private void updateListView() {
         if (listView == null) return;
 
-        // Set up the RecyclerView
-        RecyclerView eventsListView = listView.findViewById(R.id.eventsListView);
-        eventsListView.setLayoutManager(new LinearLayoutManager(requireContext()));
-        
         // Get all upcoming events from today
-        Date today = Date.from(LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant());
-        List<Event> events = getDatabaseHelper().getUpcomingEvents(today);
-        
-        EventAdapter adapter = new EventAdapter(requireContext());
-        adapter.setEvents(events);
-        eventsListView.setAdapter(adapter);
+        if (listQuery.refresh(LocalDate.now())) {
+            listView.findViewById(R.id.viewLoading).setVisibility(View.VISIBLE);
+        }
+    }
 
-        // Set click listener for events
-        adapter.setOnItemClickListener(event -> {
-            // TODO: Handle event click (e.g., show event details)
-            Toast.makeText(requireContext(), "Event: " + event.getTitle(), Toast.LENGTH_SHORT).show();
-        });
+    private void showUpcomingEvents(List<EventSummary> events) {
+        listView.findViewById(R.id.viewLoading).setVisibility(View.GONE);
+
+        listAdapter.setEvents(events);
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        weekQuery.dispose();
+        dayQuery.dispose();
+        listQuery.dispose();
+        // Recreated with the next view hierarchy
+        weekView = null;
+        dayView = null;
+        listView = null;
+        viewPool = null;
     }
 
     @Override
     public void onDestroy() {
         super.onDestroy();
-        if (dbHelper != null) {
-            dbHelper.close();
+        monthCache.clear();
+        if (asyncDb != null) {
+            asyncDb.release();
         }
     }
 }
\ No newline at end of file
@@ -22,22 +22,32 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.sems.R;
 import com.example.sems.adapters.EventAdapter;
-import com.example.sems.database.DatabaseHelper;
-import com.example.sems.models.Event;
+import com.example.sems.adapters.PaginationScrollListener;
+import com.example.sems.database.AsyncDatabase;
+import com.example.sems.database.InvalidationTracker;
+import com.example.sems.database.SessionStore;
+import com.example.sems.database.TrackedQuery;
+import com.example.sems.models.EventSummary;
 import com.example.sems.models.User;
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.example.sems.CreateEventActivity;
 import android.app.Activity;
 
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 public class EventsFragment extends Fragment {
     private static final String TAG = "EventsFragment";
     private static final int CREATE_EVENT_REQUEST = 1;
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 10;
+    private static final int SEARCH_RESULT_LIMIT = 100;
 
-    private DatabaseHelper dbHelper;
+    private AsyncDatabase asyncDb;
+    private TrackedQuery<String, FirstPage> firstPageQuery;
     private RecyclerView recyclerView;
     private EventAdapter adapter;
     private FloatingActionButton fabAddEvent;
@@ -45,24 +55,21 @@ public class EventsFragment extends Fragment {
     private User currentUser;
     private SwipeRefreshLayout swipeRefreshLayout;
     private SearchView searchView;
-    private List<Event> allEvents;
+    private List<EventSummary> allEvents;
+    private boolean isLoadingPage;
+    private boolean isLastPage;
+    private String currentQuery = "";
+    // Bumped on every reload / query change so that late results are dropped
+    private int loadGeneration;
+    private int searchGeneration;
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setHasOptionsMenu(true);
         try {
-            dbHelper = new DatabaseHelper(requireContext());
-            
-            // Get user email from arguments
-            String userEmail = getArguments() != null ? getArguments().getString("user_email") : null;
-            if (userEmail != null) {
-                currentUser = dbHelper.getUserByEmail(userEmail);
-                Log.d(TAG, "User email from arguments: " + userEmail);
-                Log.d(TAG, "Current user: " + (currentUser != null ? currentUser.getEmail() : "null"));
-            } else {
-                Log.e(TAG, "No user email in arguments");
-            }
+            asyncDb = AsyncDatabase.getInstance(requireContext());
+            // The current user is resolved together with the first page in loadEvents
         } catch (Exception e) {
             Log.e(TAG, "Error in onCreate: " + e.getMessage());
         }
@@ -85,10 +92,11 @@ public class EventsFragment extends Fragment {
         try {
             initializeViews(view);
             setupRecyclerView();
+            setupFirstPageQuery();
             setupSwipeRefresh();
             setupFabButton();
             controlFabVisibility();
-            loadEvents();
+            // Events are loaded from onResume
         } catch (Exception e) {
             Log.e(TAG, "Error in onViewCreated: " + e.getMessage());
             Toast.makeText(requireContext(), "Error initializing events view", Toast.LENGTH_SHORT).show();
@@ -109,10 +117,28 @@ public class EventsFragment extends Fragment {
 
     private void setupRecyclerView() {
         try {
-            recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+            LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+            recyclerView.setLayoutManager(layoutManager);
             adapter = new EventAdapter(requireContext());
             adapter.setOnItemClickListener(event -> showEventDetails(event));
             recyclerView.setAdapter(adapter);
+            recyclerView.addOnScrollListener(new PaginationScrollListener(layoutManager, PREFETCH_DISTANCE) {
+                @Override
+                protected void loadMoreItems() {
+                    loadNextPage();
+                }
+
+                @Override
+                public boolean isLoading() {
+                    return isLoadingPage;
+                }
+
+                @Override
+                public boolean isLastPage() {
+                    // While a search filter is shown, appending raw pages would mix in non-matches
+                    return isLastPage || !currentQuery.isEmpty();
+                }
+            });
         } catch (Exception e) {
             Log.e(TAG, "Error in setupRecyclerView: " + e.getMessage());
         }
@@ -120,7 +146,8 @@ public class EventsFragment extends Fragment {
 
     private void setupSwipeRefresh() {
         try {
-            swipeRefreshLayout.setOnRefreshListener(this::refreshEvents);
+            // An explicit pull always goes to the database
+            swipeRefreshLayout.setOnRefreshListener(() -> loadEvents(true));
             swipeRefreshLayout.setColorSchemeResources(R.color.purple_500);
         } catch (Exception e) {
             Log.e(TAG, "Error in setupSwipeRefresh: " + e.getMessage());
@@ -130,7 +157,7 @@ public class EventsFragment extends Fragment {
     private void setupFabButton() {
         try {
             fabAddEvent.setOnClickListener(v -> {
-                if (currentUser != null && "admin".equals(currentUser.getRole())) {
+                if (currentUser != null && currentUser.isAdmin()) {
                     Log.d(TAG, "Creating event with user email: " + currentUser.getEmail());
                     Intent intent = new Intent(requireContext(), CreateEventActivity.class);
                     intent.putExtra("user_email", currentUser.getEmail());
@@ -146,35 +173,123 @@ public class EventsFragment extends Fragment {
     }
 
     private void controlFabVisibility() {
-        if (currentUser != null && "admin".equals(currentUser.getRole())) {
+        if (currentUser != null && currentUser.isAdmin()) {
             fabAddEvent.setVisibility(View.VISIBLE);
         } else {
             fabAddEvent.setVisibility(View.GONE);
         }
     }
 
-    private void loadEvents() {
-        try {
-            if (dbHelper != null && currentUser != null) {
-                Log.d(TAG, "Loading events from database for user: " + currentUser.getEmail());
-                allEvents = dbHelper.getEventsByOrganizer(currentUser.getEmail());
-                Log.d(TAG, "Loaded " + (allEvents != null ? allEvents.size() : 0) + " events for user: " + currentUser.getEmail());
-                updateEventsDisplay(allEvents);
-            } else if (currentUser == null) {
-                Log.e(TAG, "Cannot load events: Current user is null.");
-                // Optionally clear the event list and show a message if user is null
-                allEvents = new ArrayList<>();
-                updateEventsDisplay(allEvents);
-            } else {
-                Log.e(TAG, "Cannot load events: Database helper is null");
+    private void setupFirstPageQuery() {
+        firstPageQuery = asyncDb.track("events.firstPage", (db, userEmail) -> {
+            User user = SessionStore.getInstance().getUser(db, userEmail);
+            List<EventSummary> firstPage = user != null
+                    ? db.getEventsByOrganizerPage(user.getEmail(), null, PAGE_SIZE)
+                    : new ArrayList<>();
+            return new FirstPage(user, firstPage);
+        }, new AsyncDatabase.Callback<FirstPage>() {
+            @Override
+            public void onResult(FirstPage result) {
+                isLoadingPage = false;
+                swipeRefreshLayout.setRefreshing(false);
+                currentUser = result.user;
+                controlFabVisibility();
+                if (currentUser == null) {
+                    Log.e(TAG, "Cannot load events: Current user is null.");
+                }
+                allEvents = new ArrayList<>(result.events);
+                isLastPage = result.events.size() < PAGE_SIZE;
+                Log.d(TAG, "Showing first page of " + result.events.size() + " events");
+                if (currentQuery.isEmpty()) {
+                    updateEventsDisplay(allEvents);
+                } else {
+                    filterEvents(currentQuery);
+                }
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error in loadEvents: " + e.getMessage(), e);
-            Toast.makeText(requireContext(), "Error loading events", Toast.LENGTH_SHORT).show();
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Error in loadEvents: " + e.getMessage(), e);
+                isLoadingPage = false;
+                swipeRefreshLayout.setRefreshing(false);
+                Toast.makeText(requireContext(), "Error loading events", Toast.LENGTH_SHORT).show();
+            }
+        }, InvalidationTracker.TABLE_USERS, InvalidationTracker.TABLE_EVENTS);
+    }
+
+    private void loadEvents(boolean force) {
+        String userEmail = getArguments() != null ? getArguments().getString("user_email") : null;
+        if (asyncDb == null || userEmail == null) {
+            Log.e(TAG, "Cannot load events: no user email in arguments");
+            allEvents = new ArrayList<>();
+            updateEventsDisplay(allEvents);
+            swipeRefreshLayout.setRefreshing(false);
+            return;
+        }
+
+        if (force) {
+            onFirstPageLoadStarted();
+            firstPageQuery.forceRefresh(userEmail);
+        } else if (firstPageQuery.refresh(userEmail)) {
+            onFirstPageLoadStarted();
+        } else {
+            // Nothing changed since the list was loaded
+            swipeRefreshLayout.setRefreshing(false);
         }
     }
 
-    private void updateEventsDisplay(List<Event> events) {
+    private void onFirstPageLoadStarted() {
+        Log.d(TAG, "Loading first page of events");
+        // Pages still in flight belong to the list being replaced
+        loadGeneration++;
+        isLoadingPage = true;
+        swipeRefreshLayout.setRefreshing(true);
+    }
+
+    private void loadNextPage() {
+        if (isLoadingPage || isLastPage || asyncDb == null || currentUser == null
+                || allEvents == null || allEvents.isEmpty()) {
+            return;
+        }
+        isLoadingPage = true;
+        final int generation = loadGeneration;
+        final String organizer = currentUser.getEmail();
+        final EventSummary lastLoaded = allEvents.get(allEvents.size() - 1);
+        asyncDb.execute(db -> db.getEventsByOrganizerPage(organizer, lastLoaded, PAGE_SIZE),
+                new AsyncDatabase.Callback<List<EventSummary>>() {
+                    @Override
+                    public void onResult(List<EventSummary> page) {
+                        if (generation != loadGeneration || getView() == null) return;
+                        isLoadingPage = false;
+                        isLastPage = page.size() < PAGE_SIZE;
+                        allEvents.addAll(page);
+                        if (currentQuery.isEmpty()) {
+                            adapter.appendEvents(page);
+                        }
+                        Log.d(TAG, "Appended page of " + page.size() + " events, " + allEvents.size() + " loaded");
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Error in loadNextPage: " + e.getMessage(), e);
+                        if (generation == loadGeneration) {
+                            isLoadingPage = false;
+                        }
+                    }
+                });
+    }
+
+    private static class FirstPage {
+        final User user;
+        final List<EventSummary> events;
+
+        FirstPage(User user, List<EventSummary> events) {
+            this.user = user;
+            this.events = events;
+        }
+    }
+
+    private void updateEventsDisplay(List<EventSummary> events) {
         try {
             if (events == null) {
                 Log.e(TAG, "Events list is null");
@@ -189,8 +304,7 @@ public class EventsFragment extends Fragment {
             } else {
                 tvNoEvents.setVisibility(View.GONE);
                 recyclerView.setVisibility(View.VISIBLE);
-                // Sort events by date (most recent first)
-                Collections.sort(events, (e1, e2) -> e2.getStartDate().compareTo(e1.getStartDate()));
+                // Already ordered newest first by the page query
                 adapter.updateEvents(events);
             }
         } catch (Exception e) {
@@ -202,10 +316,8 @@ public class EventsFragment extends Fragment {
     public void refreshEvents() {
         try {
             Log.d(TAG, "Refreshing events");
-            loadEvents();
-            if (swipeRefreshLayout != null && swipeRefreshLayout.isRefreshing()) {
-                swipeRefreshLayout.setRefreshing(false);
-            }
+            // Re-queries only if events or users changed since the last load
+            loadEvents(false);
         } catch (Exception e) {
             Log.e(TAG, "Error in refreshEvents: " + e.getMessage(), e);
             if (swipeRefreshLayout != null) {
@@ -214,31 +326,46 @@ public class EventsFragment extends Fragment {
         }
     }
 
-    private void showEventDetails(Event event) {
-        try {
-            // TODO: Implement event details view
-            Toast.makeText(requireContext(), "Event: " + event.getTitle(), Toast.LENGTH_SHORT).show();
-        } catch (Exception e) {
-            Log.e(TAG, "Error in showEventDetails: " + e.getMessage());
-        }
+    private void showEventDetails(EventSummary summary) {
+        // List rows carry no description, so the full event is loaded when one is opened
+        asyncDb.execute(db -> db.getEvent(summary.getId()), event -> {
+            if (getView() == null) return;
+            if (event == null) {
+                Toast.makeText(requireContext(), "Event no longer exists", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            SimpleDateFormat format = new SimpleDateFormat("MMM d, yyyy HH:mm", Locale.getDefault());
+            String details = event.getDescription()
+                    + "\n\n" + format.format(summary.getStartMillis()) + " - " + format.format(summary.getEndMillis())
+                    + "\n" + event.getLocation()
+                    + "\nOrganized by " + event.getOrganizer();
+            new MaterialAlertDialogBuilder(requireContext())
+                    .setTitle(event.getTitle())
+                    .setMessage(details)
+                    .setPositiveButton("Close", null)
+                    .show();
+        });
     }
 
     private void filterEvents(String query) {
         try {
-            if (allEvents == null) return;
+            if (allEvents == null || currentUser == null) return;
 
-            List<Event> filteredList = new ArrayList<>();
-            String lowercaseQuery = query.toLowerCase().trim();
-
-            for (Event event : allEvents) {
-                if (event.getTitle().toLowerCase().contains(lowercaseQuery) ||
-                    event.getDescription().toLowerCase().contains(lowercaseQuery) ||
-                    event.getLocation().toLowerCase().contains(lowercaseQuery)) {
-                    filteredList.add(event);
-                }
+            currentQuery = query.trim();
+            final int generation = ++searchGeneration;
+            if (currentQuery.isEmpty()) {
+                updateEventsDisplay(allEvents);
+                return;
             }
 
-            updateEventsDisplay(filteredList);
+            // Full-text index lookup over all of the organizer's events, not just the loaded pages
+            final String searchQuery = currentQuery;
+            final String organizer = currentUser.getEmail();
+            asyncDb.execute(db -> db.searchEvents(searchQuery, organizer, SEARCH_RESULT_LIMIT), results -> {
+                // Typing fires a search per keystroke; only the latest one is shown
+                if (generation != searchGeneration || getView() == null) return;
+                updateEventsDisplay(results);
+            });
         } catch (Exception e) {
             Log.e(TAG, "Error in filterEvents: " + e.getMessage());
         }
@@ -299,4 +426,20 @@ public class EventsFragment extends Fragment {
             Log.e(TAG, "Error in onResume: " + e.getMessage(), e);
         }
     }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (firstPageQuery != null) {
+            firstPageQuery.dispose();
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        if (asyncDb != null) {
+            asyncDb.release();
+        }
+    }
 }
\ No newline at end of file
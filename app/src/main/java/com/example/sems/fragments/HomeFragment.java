@@ -4,6 +4,7 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -15,8 +16,12 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.sems.R;
 import com.example.sems.adapters.EventAdapter;
-import com.example.sems.database.DatabaseHelper;
-import com.example.sems.models.Event;
+import com.example.sems.database.AsyncDatabase;
+import com.example.sems.database.InvalidationTracker;
+import com.example.sems.database.SessionStore;
+import com.example.sems.database.TrackedQuery;
+import com.example.sems.models.DashboardSnapshot;
+import com.example.sems.models.EventSummary;
 import com.example.sems.models.User;
 
 import androidx.appcompat.app.AlertDialog;
@@ -27,7 +32,11 @@ import java.util.List;
 
 public class HomeFragment extends Fragment implements EventAdapter.OnEventLongClickListener {
     private static final String TAG = "HomeFragment";
-    private DatabaseHelper dbHelper;
+    private static final int RECENT_EVENT_COUNT = 5;
+    // The upcoming count moves with the clock, not only with writes
+    private static final long UPCOMING_MAX_AGE_MS = 60_000;
+    private AsyncDatabase asyncDb;
+    private TrackedQuery<String, HomeData> homeQuery;
     private User currentUser;
     
     // UI Components
@@ -36,18 +45,13 @@ public class HomeFragment extends Fragment implements EventAdapter.OnEventLongCl
     private TextView tvUpcomingEvents;
     private RecyclerView rvRecentEvents;
     private TextView tvNoEvents;
+    private ProgressBar progressLoading;
     private EventAdapter eventAdapter;
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        dbHelper = new DatabaseHelper(requireContext());
-        
-        // Get user email from arguments
-        String userEmail = getArguments() != null ? getArguments().getString("user_email") : null;
-        if (userEmail != null) {
-            currentUser = dbHelper.getUserByEmail(userEmail);
-        }
+        asyncDb = AsyncDatabase.getInstance(requireContext());
     }
 
     @Nullable
@@ -66,6 +70,7 @@ public class HomeFragment extends Fragment implements EventAdapter.OnEventLongCl
         tvUpcomingEvents = view.findViewById(R.id.tvUpcomingEvents);
         rvRecentEvents = view.findViewById(R.id.rvRecentEvents);
         tvNoEvents = view.findViewById(R.id.tvNoEvents);
+        progressLoading = view.findViewById(R.id.progressLoading);
 
         // Setup RecyclerView
         rvRecentEvents.setLayoutManager(new LinearLayoutManager(requireContext()));
@@ -75,23 +80,61 @@ public class HomeFragment extends Fragment implements EventAdapter.OnEventLongCl
         // Set long click listener for events
         eventAdapter.setOnItemLongClickListener(this);
 
-        // Initial UI update
-        updateUI();
+        // Data is loaded from onResume, and only re-queried once users or events change
+        homeQuery = asyncDb.track("home", (db, userEmail) -> {
+            User user = SessionStore.getInstance().getUser(db, userEmail);
+            if (user == null) {
+                return new HomeData(null, null, null);
+            }
+            return new HomeData(user,
+                    db.getDashboardSnapshot(user.getEmail()),
+                    db.getRecentEventsByOrganizer(user.getEmail(), RECENT_EVENT_COUNT));
+        }, new AsyncDatabase.Callback<HomeData>() {
+            @Override
+            public void onResult(HomeData data) {
+                progressLoading.setVisibility(View.GONE);
+                currentUser = data.user;
+                updateUI(data);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                AsyncDatabase.Callback.super.onError(e);
+                progressLoading.setVisibility(View.GONE);
+                Toast.makeText(requireContext(), "Error loading dashboard", Toast.LENGTH_SHORT).show();
+            }
+        }, InvalidationTracker.TABLE_USERS, InvalidationTracker.TABLE_EVENTS);
+        homeQuery.setMaxAge(UPCOMING_MAX_AGE_MS);
     }
 
-    private void updateUI() {
-        if (currentUser != null) {
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        homeQuery.dispose();
+    }
+
+    private void loadData() {
+        String userEmail = getArguments() != null ? getArguments().getString("user_email") : null;
+        if (userEmail == null) {
+            return;
+        }
+
+        if (homeQuery.refresh(userEmail)) {
+            progressLoading.setVisibility(View.VISIBLE);
+            tvNoEvents.setVisibility(View.GONE);
+        }
+    }
+
+    private void updateUI(HomeData data) {
+        if (data.user != null) {
             // Update statistics
-            int totalEvents = dbHelper.getTotalEventsByOrganizer(currentUser.getEmail());
-            int totalUsers = dbHelper.getTotalUsers();
-            int upcomingEvents = dbHelper.getUpcomingEventsCountByOrganizer(currentUser.getEmail());
-            
-            tvTotalEvents.setText(String.valueOf(totalEvents));
-            tvTotalUsers.setText(String.valueOf(totalUsers));
-            tvUpcomingEvents.setText(String.valueOf(upcomingEvents));
+            DashboardSnapshot snapshot = data.snapshot;
+            tvTotalEvents.setText(String.valueOf(snapshot.getTotalEvents()));
+            tvTotalUsers.setText(String.valueOf(snapshot.getTotalUsers()));
+            tvUpcomingEvents.setText(String.valueOf(snapshot.getUpcomingEvents()));
 
             // Update recent events
-            List<Event> recentEvents = dbHelper.getRecentEventsByOrganizer(currentUser.getEmail(), 5); // Get 5 most recent events for the current user
+            List<EventSummary> recentEvents = data.recentEvents;
             if (recentEvents != null && !recentEvents.isEmpty()) {
                 eventAdapter.setEvents(recentEvents);
                 rvRecentEvents.setVisibility(View.VISIBLE);
@@ -103,18 +146,33 @@ public class HomeFragment extends Fragment implements EventAdapter.OnEventLongCl
         }
     }
 
+    // Everything the dashboard shows, gathered in one trip to the I/O thread
+    private static class HomeData {
+        final User user;
+        final DashboardSnapshot snapshot;
+        final List<EventSummary> recentEvents;
+
+        HomeData(User user, DashboardSnapshot snapshot, List<EventSummary> recentEvents) {
+            this.user = user;
+            this.snapshot = snapshot;
+            this.recentEvents = recentEvents;
+        }
+    }
+
     @Override
-    public void onEventLongClick(Event event) {
-        if (currentUser != null && "admin".equals(currentUser.getRole())) {
+    public void onEventLongClick(EventSummary event) {
+        if (currentUser != null && currentUser.isAdmin()) {
             new MaterialAlertDialogBuilder(requireContext())
                 .setTitle("Delete Event")
                 .setMessage("Are you sure you want to delete the event: \"" + event.getTitle() + "\"?")
                 .setPositiveButton("Delete", (dialog, which) -> {
-                    // Perform deletion
-                    dbHelper.deleteEvent(event.getId());
-                    Toast.makeText(requireContext(), "Event deleted", Toast.LENGTH_SHORT).show();
-                    // Refresh the list
-                    updateUI();
+                    // Perform deletion, then refresh the list
+                    asyncDb.execute(db -> db.deleteEvent(event.getId()), deleted -> {
+                        if (getView() == null) return;
+                        Toast.makeText(requireContext(), deleted > 0 ? "Event deleted" : "Event could not be deleted",
+                                Toast.LENGTH_SHORT).show();
+                        loadData();
+                    });
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
@@ -127,18 +185,14 @@ public class HomeFragment extends Fragment implements EventAdapter.OnEventLongCl
     public void onResume() {
         super.onResume();
         // Refresh data when returning to this fragment
-        String userEmail = getArguments() != null ? getArguments().getString("user_email") : null;
-        if (userEmail != null) {
-            currentUser = dbHelper.getUserByEmail(userEmail);
-            updateUI();
-        }
+        loadData();
     }
 
     @Override
     public void onDestroy() {
         super.onDestroy();
-        if (dbHelper != null) {
-            dbHelper.close();
+        if (asyncDb != null) {
+            asyncDb.release();
         }
     }
 } 
\ No newline at end of file
@@ -7,23 +7,21 @@ import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
-import androidx.recyclerview.widget.GridLayoutManager;
-import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.sems.R;
-import com.example.sems.adapters.DaysAdapter;
-import com.example.sems.database.DatabaseHelper;
+import com.example.sems.database.MonthDataCache;
+import com.example.sems.models.MonthData;
+import com.example.sems.views.MonthGridView;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.util.ArrayList;
-import java.util.List;
 
 public class MonthViewFragment extends Fragment {
     private static final String ARG_MONTH_DATE = "month_date";
     private LocalDate monthDate;
-    private RecyclerView daysGrid;
-    private DatabaseHelper databaseHelper;
+    private MonthGridView monthGrid;
+    private MonthDataCache monthCache;
+    private final MonthDataCache.Listener monthListener = this::showMonth;
 
     public static MonthViewFragment newInstance(LocalDate date) {
         MonthViewFragment fragment = new MonthViewFragment();
@@ -39,7 +37,6 @@ public class MonthViewFragment extends Fragment {
         if (getArguments() != null) {
             monthDate = (LocalDate) getArguments().getSerializable(ARG_MONTH_DATE);
         }
-        databaseHelper = new DatabaseHelper(requireContext());
     }
 
     @Nullable
@@ -52,43 +49,38 @@ public class MonthViewFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
         
-        daysGrid = view.findViewById(R.id.daysGrid);
-        daysGrid.setLayoutManager(new GridLayoutManager(requireContext(), 7));
-        
-        setupMonthDays();
-    }
-
-    private void setupMonthDays() {
-        YearMonth yearMonth = YearMonth.from(monthDate);
-        LocalDate firstOfMonth = yearMonth.atDay(1);
-        int dayOfWeek = firstOfMonth.getDayOfWeek().getValue();
-        int daysInMonth = yearMonth.lengthOfMonth();
-
-        List<LocalDate> days = new ArrayList<>();
-        
-        // Add empty spaces for days before the first of the month
-        for (int i = 1; i < dayOfWeek; i++) {
-            days.add(null);
-        }
-        
-        // Add all days of the month
-        for (int i = 1; i <= daysInMonth; i++) {
-            days.add(firstOfMonth.plusDays(i - 1));
-        }
-
-        DaysAdapter adapter = new DaysAdapter(days, date -> {
+        monthGrid = view.findViewById(R.id.monthGrid);
+        monthGrid.setOnDateClickListener(date -> {
             if (getParentFragment() instanceof CalendarFragment) {
                 ((CalendarFragment) getParentFragment()).onDateClick(date);
             }
         });
-        daysGrid.setAdapter(adapter);
+
+        YearMonth month = YearMonth.from(monthDate);
+        monthCache = ((CalendarFragment) requireParentFragment()).getMonthDataCache();
+        // A prefetched month is complete on the first frame; otherwise show the
+        // bare grid until the cache delivers it
+        MonthData cached = monthCache.peek(month);
+        showMonth(cached != null ? cached : MonthData.build(month, null));
+        monthCache.addListener(month, monthListener);
     }
 
     @Override
-    public void onDestroy() {
-        super.onDestroy();
-        if (databaseHelper != null) {
-            databaseHelper.close();
-        }
+    public void onStart() {
+        super.onStart();
+        // Neighbouring pages are only started, so refresh here rather than in onResume;
+        // a no-op unless events changed since the month was loaded
+        monthCache.refresh(YearMonth.from(monthDate));
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        monthCache.removeListener(YearMonth.from(monthDate), monthListener);
+    }
+
+    private void showMonth(MonthData data) {
+        // Redraws in place, keeping the selection
+        monthGrid.setMonthData(data);
     }
-} 
\ No newline at end of file
+}
@@ -14,7 +14,8 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
-import com.example.sems.database.DatabaseHelper;
+import com.example.sems.database.AsyncDatabase;
+import com.example.sems.database.SessionStore;
 import com.example.sems.R;
 import com.example.sems.models.User;
 import com.google.android.material.textfield.TextInputEditText;
@@ -22,7 +23,7 @@ import com.google.android.material.textfield.TextInputLayout;
 
 public class ProfileFragment extends Fragment {
     private static final String TAG = "ProfileFragment";
-    private DatabaseHelper dbHelper;
+    private AsyncDatabase asyncDb;
     private User currentUser;
 
     // UI Elements
@@ -36,11 +37,7 @@ public class ProfileFragment extends Fragment {
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        dbHelper = new DatabaseHelper(requireContext());
-        String userEmail = getArguments() != null ? getArguments().getString("user_email") : null;
-        if (userEmail != null) {
-            currentUser = dbHelper.getUserByEmail(userEmail);
-        }
+        asyncDb = AsyncDatabase.getInstance(requireContext());
     }
 
     @Nullable
@@ -61,6 +58,22 @@ public class ProfileFragment extends Fragment {
         departmentInput = view.findViewById(R.id.departmentInput);
         saveProfileButton = view.findViewById(R.id.saveProfileButton);
 
+        // Set up Save button click listener
+        saveProfileButton.setOnClickListener(v -> saveProfile());
+
+        // Saving stays disabled until the profile has loaded
+        saveProfileButton.setEnabled(false);
+        String userEmail = getArguments() != null ? getArguments().getString("user_email") : null;
+        if (userEmail != null) {
+            SessionStore.getInstance().getUser(asyncDb, userEmail, user -> {
+                if (getView() == null) return;
+                currentUser = user;
+                showUser();
+            });
+        }
+    }
+
+    private void showUser() {
         // Load user data if available
         if (currentUser != null) {
             profileNameTextView.setText(currentUser.getName());
@@ -68,10 +81,8 @@ public class ProfileFragment extends Fragment {
             nameInput.setText(currentUser.getName());
             phoneNumberInput.setText(currentUser.getPhoneNumber());
             departmentInput.setText(currentUser.getDepartment());
+            saveProfileButton.setEnabled(true);
         }
-
-        // Set up Save button click listener
-        saveProfileButton.setOnClickListener(v -> saveProfile());
     }
 
     private void saveProfile() {
@@ -81,30 +92,34 @@ public class ProfileFragment extends Fragment {
             String phoneNumber = phoneNumberInput.getText().toString().trim();
             String department = departmentInput.getText().toString().trim();
 
-            // Update user object
-            currentUser.setName(name);
-            currentUser.setPhoneNumber(phoneNumber);
-            currentUser.setDepartment(department);
+            // Update a copy of the user object
+            User updated = new User(currentUser.getId(), currentUser.getEmail(), currentUser.getPassword(),
+                    name, phoneNumber, department, currentUser.getPosition(), currentUser.getRole(),
+                    currentUser.isActive());
 
             // Save to database
-            int result = dbHelper.updateUser(currentUser);
-
-            if (result > 0) {
-                Toast.makeText(requireContext(), "Profile updated successfully", Toast.LENGTH_SHORT).show();
-                // Optionally refresh UI after saving
-                profileNameTextView.setText(currentUser.getName());
-                profileEmailTextView.setText(currentUser.getEmail());
-            } else {
-                Toast.makeText(requireContext(), "Failed to update profile", Toast.LENGTH_SHORT).show();
-            }
+            saveProfileButton.setEnabled(false);
+            asyncDb.execute(db -> db.updateUser(updated), result -> {
+                if (getView() == null) return;
+                saveProfileButton.setEnabled(true);
+                if (result > 0) {
+                    currentUser = updated;
+                    Toast.makeText(requireContext(), "Profile updated successfully", Toast.LENGTH_SHORT).show();
+                    // Optionally refresh UI after saving
+                    profileNameTextView.setText(currentUser.getName());
+                    profileEmailTextView.setText(currentUser.getEmail());
+                } else {
+                    Toast.makeText(requireContext(), "Failed to update profile", Toast.LENGTH_SHORT).show();
+                }
+            });
         }
     }
 
     @Override
     public void onDestroy() {
         super.onDestroy();
-        if (dbHelper != null) {
-            dbHelper.close();
+        if (asyncDb != null) {
+            asyncDb.release();
         }
     }
 } 
\ No newline at end of file
@@ -2,9 +2,11 @@ package com.example.sems.fragments;
 
 import androidx.appcompat.app.AlertDialog;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ProgressBar;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
@@ -14,29 +16,48 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.sems.R;
+import com.example.sems.adapters.PaginationScrollListener;
 import com.example.sems.adapters.UserAdapter;
-import com.example.sems.database.DatabaseHelper;
+import com.example.sems.database.AsyncDatabase;
+import com.example.sems.database.InvalidationTracker;
+import com.example.sems.database.SessionStore;
+import com.example.sems.database.TrackedQuery;
 import com.example.sems.models.User;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.textfield.TextInputEditText;
+import com.google.android.material.textfield.TextInputLayout;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import android.widget.ArrayAdapter;
 import android.widget.AutoCompleteTextView;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+
 
 public class UserManagementFragment extends Fragment implements UserAdapter.OnUserActionListener {
-    private DatabaseHelper dbHelper;
+    private static final String TAG = "UserManagementFragment";
+    // Results of the combined check-and-write tasks in the add/edit dialogs
+    private static final long RESULT_EMAIL_TAKEN = -2;
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 10;
+
+    private AsyncDatabase asyncDb;
+    private TrackedQuery<Void, List<User>> firstPageQuery;
     private RecyclerView recyclerView;
+    private ProgressBar progressLoading;
     private UserAdapter adapter;
     private FloatingActionButton fabAddUser;
     private User currentUser;
+    private List<User> loadedUsers = new ArrayList<>();
+    private boolean isLoadingPage;
+    private boolean isLastPage;
+    // Bumped on every reload so that pages of the replaced list are dropped
+    private int loadGeneration;
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        dbHelper = new DatabaseHelper(requireContext());
+        asyncDb = AsyncDatabase.getInstance(requireContext());
     }
 
     @Nullable
@@ -48,20 +69,66 @@ public class UserManagementFragment extends Fragment implements UserAdapter.OnUs
         // Initialize views and database
         recyclerView = root.findViewById(R.id.recyclerView);
         fabAddUser = root.findViewById(R.id.fabAddUser);
+        progressLoading = root.findViewById(R.id.progressLoading);
+
+        // Set up RecyclerView; the adapter lives as long as the view and only its rows change
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        recyclerView.setLayoutManager(layoutManager);
+        adapter = new UserAdapter(new ArrayList<>(), this);
+        recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new PaginationScrollListener(layoutManager, PREFETCH_DISTANCE) {
+            @Override
+            protected void loadMoreItems() {
+                loadNextPage();
+            }
+
+            @Override
+            public boolean isLoading() {
+                return isLoadingPage;
+            }
 
-        // Set up RecyclerView
-        recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+            @Override
+            public boolean isLastPage() {
+                return isLastPage;
+            }
+        });
+
+        // First page of the directory, re-queried only after a write to users
+        firstPageQuery = asyncDb.track("users.firstPage", (db, unused) -> db.getUsersPage(null, PAGE_SIZE),
+                new AsyncDatabase.Callback<List<User>>() {
+                    @Override
+                    public void onResult(List<User> users) {
+                        isLoadingPage = false;
+                        progressLoading.setVisibility(View.GONE);
+                        loadedUsers = new ArrayList<>(users);
+                        isLastPage = users.size() < PAGE_SIZE;
+                        adapter.updateUsers(users);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Error in loadUsers: " + e.getMessage(), e);
+                        isLoadingPage = false;
+                        progressLoading.setVisibility(View.GONE);
+                        Toast.makeText(requireContext(), "Error loading users", Toast.LENGTH_SHORT).show();
+                    }
+                }, InvalidationTracker.TABLE_USERS);
 
         // Get current user
         String userEmail = requireActivity().getIntent().getStringExtra("user_email");
         if (userEmail != null) {
-            currentUser = dbHelper.getUserByEmail(userEmail);
-            updateUI();
+            progressLoading.setVisibility(View.VISIBLE);
+            SessionStore.getInstance().getUser(asyncDb, userEmail, user -> {
+                if (getView() == null) return;
+                progressLoading.setVisibility(View.GONE);
+                currentUser = user;
+                updateUI();
+            });
         }
 
         // Set up FAB click listener
         fabAddUser.setOnClickListener(v -> {
-            if (currentUser != null && "admin".equals(currentUser.getRole())) {
+            if (currentUser != null && currentUser.isAdmin()) {
                 showAddUserDialog();
             } else {
                 Toast.makeText(requireContext(), "Only administrators can add users", Toast.LENGTH_SHORT).show();
@@ -74,7 +141,7 @@ public class UserManagementFragment extends Fragment implements UserAdapter.OnUs
     private void updateUI() {
         if (currentUser != null) {
             // Show/hide FAB based on user role
-            if ("admin".equals(currentUser.getRole())) {
+            if (currentUser.isAdmin()) {
                 fabAddUser.setVisibility(View.VISIBLE);
                 loadUsers();
             } else {
@@ -86,9 +153,40 @@ public class UserManagementFragment extends Fragment implements UserAdapter.OnUs
     }
 
     private void loadUsers() {
-        List<User> users = dbHelper.getAllUsers();
-        adapter = new UserAdapter(users, this);
-        recyclerView.setAdapter(adapter);
+        if (firstPageQuery.refresh(null)) {
+            // Pages still in flight belong to the list being replaced
+            loadGeneration++;
+            isLoadingPage = true;
+            progressLoading.setVisibility(View.VISIBLE);
+        }
+    }
+
+    private void loadNextPage() {
+        if (isLoadingPage || isLastPage || loadedUsers.isEmpty()) {
+            return;
+        }
+        isLoadingPage = true;
+        final int generation = loadGeneration;
+        final User lastLoaded = loadedUsers.get(loadedUsers.size() - 1);
+        asyncDb.execute(db -> db.getUsersPage(lastLoaded, PAGE_SIZE), new AsyncDatabase.Callback<List<User>>() {
+            @Override
+            public void onResult(List<User> page) {
+                if (generation != loadGeneration || getView() == null) return;
+                isLoadingPage = false;
+                isLastPage = page.size() < PAGE_SIZE;
+                loadedUsers.addAll(page);
+                adapter.appendUsers(page);
+                Log.d(TAG, "Appended page of " + page.size() + " users, " + loadedUsers.size() + " loaded");
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Error in loadNextPage: " + e.getMessage(), e);
+                if (generation == loadGeneration) {
+                    isLoadingPage = false;
+                }
+            }
+        });
     }
 
     private void showAddUserDialog() {
@@ -104,7 +202,7 @@ public class UserManagementFragment extends Fragment implements UserAdapter.OnUs
         AutoCompleteTextView spinnerRole = dialogView.findViewById(R.id.spinnerRole);
 
         // Set up role spinner
-        String[] roles = {"admin", "user"};
+        String[] roles = {User.ROLE_ADMIN, User.ROLE_USER};
         ArrayAdapter<String> roleAdapter = new ArrayAdapter<>(
                 requireContext(),
                 android.R.layout.simple_dropdown_item_1line,
@@ -134,22 +232,27 @@ public class UserManagementFragment extends Fragment implements UserAdapter.OnUs
                     return;
                 }
 
-                // Check if email already exists
-                if (dbHelper.getUserByEmail(email) != null) {
-                    Toast.makeText(requireContext(), "Email already exists", Toast.LENGTH_SHORT).show();
-                    return;
-                }
-
                 User newUser = new User(0, email, password, name, phone, department, position, role, true);
-                long result = dbHelper.addUser(newUser);
-
-                if (result != -1) {
-                    Toast.makeText(requireContext(), "User added successfully", Toast.LENGTH_SHORT).show();
-                    loadUsers();
-                    dialog.dismiss();
-                } else {
-                    Toast.makeText(requireContext(), "Failed to add user", Toast.LENGTH_SHORT).show();
-                }
+                v.setEnabled(false);
+                asyncDb.execute(db -> {
+                    // Check if email already exists
+                    if (db.getUserByEmail(email) != null) {
+                        return RESULT_EMAIL_TAKEN;
+                    }
+                    return db.addUser(newUser);
+                }, result -> {
+                    v.setEnabled(true);
+                    if (!isAdded()) return;
+                    if (result == RESULT_EMAIL_TAKEN) {
+                        Toast.makeText(requireContext(), "Email already exists", Toast.LENGTH_SHORT).show();
+                    } else if (result != -1) {
+                        Toast.makeText(requireContext(), "User added successfully", Toast.LENGTH_SHORT).show();
+                        loadUsers();
+                        dialog.dismiss();
+                    } else {
+                        Toast.makeText(requireContext(), "Failed to add user", Toast.LENGTH_SHORT).show();
+                    }
+                });
             });
         });
 
@@ -168,9 +271,10 @@ public class UserManagementFragment extends Fragment implements UserAdapter.OnUs
         TextInputEditText etPosition = dialogView.findViewById(R.id.etPosition);
         AutoCompleteTextView spinnerRole = dialogView.findViewById(R.id.spinnerRole);
 
-        // Pre-fill the fields
+        // Pre-fill the fields; the directory never loads passwords, so a blank one keeps the current
         etEmail.setText(user.getEmail());
-        etPassword.setText(user.getPassword());
+        TextInputLayout tilPassword = dialogView.findViewById(R.id.tilPassword);
+        tilPassword.setHint("New password (optional)");
         etName.setText(user.getName());
         etPhone.setText(user.getPhoneNumber());
         etDepartment.setText(user.getDepartment());
@@ -178,7 +282,7 @@ public class UserManagementFragment extends Fragment implements UserAdapter.OnUs
         spinnerRole.setText(user.getRole());
 
         // Set up role spinner
-        String[] roles = {"admin", "user"};
+        String[] roles = {User.ROLE_ADMIN, User.ROLE_USER};
         ArrayAdapter<String> roleAdapter = new ArrayAdapter<>(
                 requireContext(),
                 android.R.layout.simple_dropdown_item_1line,
@@ -203,35 +307,35 @@ public class UserManagementFragment extends Fragment implements UserAdapter.OnUs
                 String position = etPosition.getText().toString().trim();
                 String role = spinnerRole.getText().toString().trim();
 
-                if (email.isEmpty() || password.isEmpty() || name.isEmpty()) {
+                if (email.isEmpty() || name.isEmpty()) {
                     Toast.makeText(requireContext(), "Please fill all required fields", Toast.LENGTH_SHORT).show();
                     return;
                 }
 
-                // Check if email already exists (for different user)
-                User existingUser = dbHelper.getUserByEmail(email);
-                if (existingUser != null && existingUser.getId() != user.getId()) {
-                    Toast.makeText(requireContext(), "Email already exists", Toast.LENGTH_SHORT).show();
-                    return;
-                }
-
-                user.setEmail(email);
-                user.setPassword(password);
-                user.setName(name);
-                user.setPhoneNumber(phone);
-                user.setDepartment(department);
-                user.setPosition(position);
-                user.setRole(role);
-
-                int result = dbHelper.updateUser(user);
-
-                if (result > 0) {
-                    Toast.makeText(requireContext(), "User updated successfully", Toast.LENGTH_SHORT).show();
-                    loadUsers();
-                    dialog.dismiss();
-                } else {
-                    Toast.makeText(requireContext(), "Failed to update user", Toast.LENGTH_SHORT).show();
-                }
+                // Edit a copy so the list keeps showing the stored values until the write lands
+                User updated = new User(user.getId(), email, password, name, phone, department,
+                        position, role, user.isActive());
+                v.setEnabled(false);
+                asyncDb.execute(db -> {
+                    // Check if email already exists (for different user)
+                    User existingUser = db.getUserByEmail(email);
+                    if (existingUser != null && existingUser.getId() != user.getId()) {
+                        return RESULT_EMAIL_TAKEN;
+                    }
+                    return (long) db.updateUser(updated);
+                }, result -> {
+                    v.setEnabled(true);
+                    if (!isAdded()) return;
+                    if (result == RESULT_EMAIL_TAKEN) {
+                        Toast.makeText(requireContext(), "Email already exists", Toast.LENGTH_SHORT).show();
+                    } else if (result > 0) {
+                        Toast.makeText(requireContext(), "User updated successfully", Toast.LENGTH_SHORT).show();
+                        loadUsers();
+                        dialog.dismiss();
+                    } else {
+                        Toast.makeText(requireContext(), "Failed to update user", Toast.LENGTH_SHORT).show();
+                    }
+                });
             });
         });
 
@@ -239,25 +343,34 @@ public class UserManagementFragment extends Fragment implements UserAdapter.OnUs
     }
 
     private void showDeleteUserDialog(User user) {
+        if (!user.isAdmin()) {
+            confirmDeleteUser(user);
+            return;
+        }
+
         // Prevent deleting the last admin
-        if ("admin".equals(user.getRole())) {
-            List<User> admins = dbHelper.getAllUsers().stream()
-                    .filter(u -> "admin".equals(u.getRole()))
-                    .collect(Collectors.toList());
-            if (admins.size() <= 1) {
+        asyncDb.execute(db -> db.countUsersByRole(User.ROLE_ADMIN), admins -> {
+            if (!isAdded()) return;
+            if (admins <= 1) {
                 Toast.makeText(requireContext(), "Cannot delete the last admin user", Toast.LENGTH_SHORT).show();
-                return;
+            } else {
+                confirmDeleteUser(user);
             }
-        }
+        });
+    }
 
+    private void confirmDeleteUser(User user) {
         new MaterialAlertDialogBuilder(requireContext())
                 .setTitle("Delete User")
                 .setMessage("Are you sure you want to delete this user? This action cannot be undone.")
-                .setPositiveButton("Delete", (dialog, which) -> {
-                    dbHelper.deleteUser(user.getId());
+                .setPositiveButton("Delete", (dialog, which) -> asyncDb.execute(db -> {
+                    db.deleteUser(user.getId());
+                    return null;
+                }, ignored -> {
+                    if (!isAdded()) return;
                     Toast.makeText(requireContext(), "User deleted successfully", Toast.LENGTH_SHORT).show();
                     loadUsers();
-                })
+                }))
                 .setNegativeButton("Cancel", null)
                 .show();
     }
@@ -265,7 +378,7 @@ public class UserManagementFragment extends Fragment implements UserAdapter.OnUs
     @Override
     public void onResume() {
         super.onResume();
-        if (currentUser != null && "admin".equals(currentUser.getRole())) {
+        if (currentUser != null && currentUser.isAdmin()) {
             loadUsers();
         }
     }
@@ -279,4 +392,18 @@ public class UserManagementFragment extends Fragment implements UserAdapter.OnUs
     public void onDeleteUser(User user) {
         showDeleteUserDialog(user);
     }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        firstPageQuery.dispose();
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        if (asyncDb != null) {
+            asyncDb.release();
+        }
+    }
 } 
\ No newline at end of file
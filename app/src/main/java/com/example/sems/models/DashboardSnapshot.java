@@ -0,0 +1,22 @@
+package com.example.sems.models;
+
+/**
+ * Point-in-time dashboard statistics for one organizer, read in a single query.
+ */
+public class DashboardSnapshot {
+    private final int totalEvents;
+    private final int totalUsers;
+    private final int upcomingEvents;
+
+    public DashboardSnapshot(int totalEvents, int totalUsers, int upcomingEvents) {
+        this.totalEvents = totalEvents;
+        this.totalUsers = totalUsers;
+        this.upcomingEvents = upcomingEvents;
+    }
+
+    public int getTotalEvents() { return totalEvents; }
+
+    public int getTotalUsers() { return totalUsers; }
+
+    public int getUpcomingEvents() { return upcomingEvents; }
+}
@@ -0,0 +1,143 @@
+package com.example.sems.models;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Where each event of one day goes on an hour grid of a given width. Events that
+ * overlap share the width side by side: they are swept in start order and each
+ * takes the leftmost column that is free by its start, so every cluster of
+ * overlapping events uses as few columns as it can. Built off the main thread;
+ * drawing then only reads the precomputed rectangles.
+ */
+public final class DayTimelineLayout {
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final int DAY_MINUTES = 24 * 60;
+
+    private final LocalDate day;
+    private final int width;
+    private final List<EventSummary> source;
+    // Events in layout order and their rectangles, four floats each: left, top, right, bottom
+    private final EventSummary[] events;
+    private final float[] rects;
+
+    private DayTimelineLayout(LocalDate day, int width, List<EventSummary> source, EventSummary[] events,
+                              float[] rects) {
+        this.day = day;
+        this.width = width;
+        this.source = source;
+        this.events = events;
+        this.rects = rects;
+    }
+
+    /**
+     * @param events      the day's events, as returned by DatabaseHelper.getEventsByDate;
+     *                    parts outside the day are cut off
+     * @param width       view width the layout is for, part of its cache key
+     * @param gridLeft    x of the grid's left edge, right of the hour labels
+     * @param gridRight   x of the grid's right edge
+     * @param hourHeight  height of one hour on the grid
+     * @param minHeight   smallest block height, so short events stay readable; it also
+     *                    counts towards overlap so that such blocks never cover each other
+     */
+    public static DayTimelineLayout compute(LocalDate day, List<EventSummary> events, int width,
+                                            float gridLeft, float gridRight, float hourHeight, float minHeight) {
+        int count = events.size();
+        long dayStart = day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        float minuteHeight = hourHeight / 60f;
+        int minMinutes = (int) Math.ceil(minHeight / minuteHeight);
+
+        // Start and end minute of each event on the grid, clipped to the day
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            EventSummary event = events.get(i);
+            int start = clampMinute(event.getStartMillis() - dayStart);
+            int end = clampMinute(event.getEndMillis() - dayStart);
+            starts[i] = Math.min(start, DAY_MINUTES - minMinutes);
+            ends[i] = Math.max(end, starts[i] + minMinutes);
+            order[i] = i;
+        }
+        // By start, longer first, so a long event gets the leftmost column of its cluster
+        Arrays.sort(order, (a, b) -> starts[a] != starts[b]
+                ? Integer.compare(starts[a], starts[b]) : Integer.compare(ends[b], ends[a]));
+
+        int[] columns = new int[count];
+        int[] clusterColumns = new int[count];
+        // End minute of the last event placed in each column of the current cluster
+        int[] columnEnds = new int[Math.max(count, 1)];
+        int columnsInUse = 0;
+        int clusterFirst = 0;
+        int clusterEnd = Integer.MIN_VALUE;
+        for (int k = 0; k < count; k++) {
+            int i = order[k];
+            if (starts[i] >= clusterEnd) {
+                // Nothing placed so far is still running: close the cluster
+                closeCluster(order, clusterFirst, k, columnsInUse, clusterColumns);
+                clusterFirst = k;
+                columnsInUse = 0;
+            }
+            int column = 0;
+            while (column < columnsInUse && columnEnds[column] > starts[i]) {
+                column++;
+            }
+            if (column == columnsInUse) {
+                columnsInUse++;
+            }
+            columnEnds[column] = ends[i];
+            columns[i] = column;
+            clusterEnd = Math.max(clusterEnd, ends[i]);
+        }
+        closeCluster(order, clusterFirst, count, columnsInUse, clusterColumns);
+
+        EventSummary[] laidOut = new EventSummary[count];
+        float[] rects = new float[count * 4];
+        float gridWidth = Math.max(0f, gridRight - gridLeft);
+        for (int k = 0; k < count; k++) {
+            int i = order[k];
+            float columnWidth = gridWidth / clusterColumns[i];
+            laidOut[k] = events.get(i);
+            rects[k * 4] = gridLeft + columns[i] * columnWidth;
+            rects[k * 4 + 1] = starts[i] * minuteHeight;
+            rects[k * 4 + 2] = gridLeft + (columns[i] + 1) * columnWidth;
+            rects[k * 4 + 3] = ends[i] * minuteHeight;
+        }
+        return new DayTimelineLayout(day, width, events, laidOut, rects);
+    }
+
+    private static int clampMinute(long millisIntoDay) {
+        return (int) Math.max(0, Math.min(DAY_MINUTES, millisIntoDay / MINUTE_MILLIS));
+    }
+
+    // Gives every event in order[from, to) the cluster's column count
+    private static void closeCluster(Integer[] order, int from, int to, int columnCount, int[] clusterColumns) {
+        for (int k = from; k < to; k++) {
+            clusterColumns[order[k]] = columnCount;
+        }
+    }
+
+    public LocalDate getDay() { return day; }
+
+    public int getWidth() { return width; }
+
+    public int getCount() { return events.length; }
+
+    /** The event at {@code index} in layout order, which is by start. */
+    public EventSummary getEvent(int index) { return events[index]; }
+
+    public float getLeft(int index) { return rects[index * 4]; }
+
+    public float getTop(int index) { return rects[index * 4 + 1]; }
+
+    public float getRight(int index) { return rects[index * 4 + 2]; }
+
+    public float getBottom(int index) { return rects[index * 4 + 3]; }
+
+    /** Whether this layout was computed for {@code events} on {@code day} at {@code width}. */
+    public boolean matches(LocalDate day, int width, List<EventSummary> events) {
+        return this.width == width && this.day.equals(day) && (source == events || source.equals(events));
+    }
+}
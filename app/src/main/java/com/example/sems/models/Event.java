@@ -1,75 +1,107 @@
 package com.example.sems.models;
 
-import android.util.Log;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Objects;
+
+/**
+ * An event as stored in the database. Instances are immutable and built with
+ * {@link Builder}; times are kept as epoch milliseconds, so loading a row allocates
+ * nothing beyond the strings. {@link #getStartDate()} and the other views are
+ * created on demand, which keeps them out of list loads and lets callers mutate
+ * the returned {@link Date} without touching the event.
+ */
+public final class Event {
+    private final int id;
+    private final String title;
+    private final String description;
+    private final long startMillis;
+    private final long endMillis;
+    private final String location;
+    private final String organizer;
+    private final boolean isActive;
+
+    private Event(Builder builder) {
+        this.id = builder.id;
+        this.title = builder.title;
+        this.description = builder.description;
+        this.startMillis = builder.startMillis;
+        this.endMillis = builder.endMillis;
+        this.location = builder.location;
+        this.organizer = builder.organizer;
+        this.isActive = builder.isActive;
+    }
 
-public class Event {
-    private static final String TAG = "Event";
-    private int id;
-    private String title;
-    private String description;
-    private Date startDate;
-    private Date endDate;
-    private String location;
-    private String organizer;
-    private boolean isActive;
-
-    public Event(int id, String title, String description, Date startDate, Date endDate, 
-                String location, String organizer, boolean isActive) {
-        try {
-            this.id = id;
-            this.title = title != null ? title.trim() : "";
-            this.description = description != null ? description.trim() : "";
-            this.startDate = startDate != null ? startDate : new Date();
-            this.endDate = endDate != null ? endDate : new Date();
-            this.location = location != null ? location.trim() : "";
-            this.organizer = organizer != null ? organizer.trim() : "";
-            this.isActive = isActive;
-
-            // Log event creation
-            Log.d(TAG, "Creating event: " + toString());
-        } catch (Exception e) {
-            Log.e(TAG, "Error creating event: " + e.getMessage(), e);
-            throw new IllegalArgumentException("Invalid event data: " + e.getMessage());
-        }
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** A builder starting from this event's values, e.g. to give a new event its row id. */
+    public Builder toBuilder() {
+        return new Builder()
+                .setId(id)
+                .setTitle(title)
+                .setDescription(description)
+                .setStartMillis(startMillis)
+                .setEndMillis(endMillis)
+                .setLocation(location)
+                .setOrganizer(organizer)
+                .setActive(isActive);
     }
 
-    // Getters and Setters with validation
     public int getId() { return id; }
-    public void setId(int id) { this.id = id; }
 
     public String getTitle() { return title; }
-    public void setTitle(String title) {
-        this.title = title != null ? title.trim() : "";
-    }
 
     public String getDescription() { return description; }
-    public void setDescription(String description) {
-        this.description = description != null ? description.trim() : "";
-    }
 
-    public Date getStartDate() { return startDate; }
-    public void setStartDate(Date startDate) {
-        this.startDate = startDate != null ? startDate : new Date();
-    }
+    public long getStartMillis() { return startMillis; }
 
-    public Date getEndDate() { return endDate; }
-    public void setEndDate(Date endDate) {
-        this.endDate = endDate != null ? endDate : new Date();
-    }
+    public long getEndMillis() { return endMillis; }
+
+    public Date getStartDate() { return new Date(startMillis); }
+
+    public Date getEndDate() { return new Date(endMillis); }
+
+    public Instant getStartInstant() { return Instant.ofEpochMilli(startMillis); }
+
+    public Instant getEndInstant() { return Instant.ofEpochMilli(endMillis); }
 
     public String getLocation() { return location; }
-    public void setLocation(String location) {
-        this.location = location != null ? location.trim() : "";
-    }
 
     public String getOrganizer() { return organizer; }
-    public void setOrganizer(String organizer) {
-        this.organizer = organizer != null ? organizer.trim() : "";
-    }
 
     public boolean isActive() { return isActive; }
-    public void setActive(boolean active) { isActive = active; }
+
+    /** Whether every required field is filled in and the event does not end before it starts. */
+    public boolean isValid() {
+        return !title.isEmpty()
+                && !description.isEmpty()
+                && !location.isEmpty()
+                && !organizer.isEmpty()
+                && startMillis > 0
+                && endMillis >= startMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Event)) return false;
+        Event other = (Event) o;
+        return id == other.id
+                && startMillis == other.startMillis
+                && endMillis == other.endMillis
+                && isActive == other.isActive
+                && title.equals(other.title)
+                && description.equals(other.description)
+                && location.equals(other.location)
+                && organizer.equals(other.organizer);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, description, startMillis, endMillis, location, organizer, isActive);
+    }
 
     @Override
     public String toString() {
@@ -77,70 +109,74 @@ public class Event {
                 "id=" + id +
                 ", title='" + title + '\'' +
                 ", description='" + description + '\'' +
-                ", startDate=" + startDate +
-                ", endDate=" + endDate +
+                ", startDate=" + getStartInstant() +
+                ", endDate=" + getEndInstant() +
                 ", location='" + location + '\'' +
                 ", organizer='" + organizer + '\'' +
                 ", isActive=" + isActive +
                 '}';
     }
 
-    public boolean isValid() {
-        try {
-            // Log all validation checks
-            Log.d(TAG, "Validating event: " + toString());
-            
-            // Check title
-            if (title == null || title.trim().isEmpty()) {
-                Log.e(TAG, "Invalid event: Title is empty");
-                return false;
-            }
-            Log.d(TAG, "Title validation passed");
-
-            // Check description
-            if (description == null || description.trim().isEmpty()) {
-                Log.e(TAG, "Invalid event: Description is empty");
-                return false;
-            }
-            Log.d(TAG, "Description validation passed");
-
-            // Check location
-            if (location == null || location.trim().isEmpty()) {
-                Log.e(TAG, "Invalid event: Location is empty");
-                return false;
-            }
-            Log.d(TAG, "Location validation passed");
-
-            // Check organizer
-            if (organizer == null || organizer.trim().isEmpty()) {
-                Log.e(TAG, "Invalid event: Organizer is empty");
-                return false;
-            }
-            Log.d(TAG, "Organizer validation passed");
-
-            // Check dates
-            if (startDate == null) {
-                Log.e(TAG, "Invalid event: Start date is null");
-                return false;
-            }
-            if (endDate == null) {
-                Log.e(TAG, "Invalid event: End date is null");
-                return false;
-            }
-            Log.d(TAG, "Date null checks passed");
-
-            // Check date order
-            if (endDate.before(startDate)) {
-                Log.e(TAG, "Invalid event: End date (" + endDate + ") is before start date (" + startDate + ")");
-                return false;
-            }
-            Log.d(TAG, "Date order validation passed");
-
-            Log.d(TAG, "Event validation successful");
-            return true;
-        } catch (Exception e) {
-            Log.e(TAG, "Error validating event: " + e.getMessage(), e);
-            return false;
+    /** Collects an event's fields; text is trimmed and null text becomes empty. */
+    public static final class Builder {
+        private int id;
+        private String title = "";
+        private String description = "";
+        private long startMillis;
+        private long endMillis;
+        private String location = "";
+        private String organizer = "";
+        private boolean isActive = true;
+
+        private Builder() {
+        }
+
+        public Builder setId(int id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder setTitle(String title) {
+            this.title = clean(title);
+            return this;
+        }
+
+        public Builder setDescription(String description) {
+            this.description = clean(description);
+            return this;
+        }
+
+        public Builder setStartMillis(long startMillis) {
+            this.startMillis = startMillis;
+            return this;
+        }
+
+        public Builder setEndMillis(long endMillis) {
+            this.endMillis = endMillis;
+            return this;
+        }
+
+        public Builder setLocation(String location) {
+            this.location = clean(location);
+            return this;
+        }
+
+        public Builder setOrganizer(String organizer) {
+            this.organizer = clean(organizer);
+            return this;
+        }
+
+        public Builder setActive(boolean active) {
+            this.isActive = active;
+            return this;
+        }
+
+        public Event build() {
+            return new Event(this);
+        }
+
+        private static String clean(String value) {
+            return value != null ? value.trim() : "";
         }
     }
-}
\ No newline at end of file
+}
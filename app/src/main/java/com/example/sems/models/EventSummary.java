@@ -0,0 +1,75 @@
+package com.example.sems.models;
+
+import java.util.Objects;
+
+/**
+ * The columns list screens show for an event: no description or organizer, so
+ * a page of rows stays small in the cursor window and in memory. Load the full
+ * {@link Event} by id when one is opened.
+ */
+public final class EventSummary {
+    private final int id;
+    private final String title;
+    private final long startMillis;
+    private final long endMillis;
+    private final String location;
+
+    public EventSummary(int id, String title, long startMillis, long endMillis, String location) {
+        this.id = id;
+        this.title = title != null ? title : "";
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.location = location != null ? location : "";
+    }
+
+    public static EventSummary from(Event event) {
+        return new EventSummary(event.getId(), event.getTitle(), event.getStartMillis(), event.getEndMillis(),
+                event.getLocation());
+    }
+
+    public int getId() { return id; }
+
+    public String getTitle() { return title; }
+
+    public long getStartMillis() { return startMillis; }
+
+    public long getEndMillis() { return endMillis; }
+
+    public String getLocation() { return location; }
+
+    /**
+     * Identifies the row in a list. Occurrences of a recurring series share the
+     * series id, so the start minute is folded into the low bits.
+     */
+    public long getStableId() {
+        return ((long) id << 32) | ((startMillis / 60_000L) & 0xffffffffL);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EventSummary)) return false;
+        EventSummary other = (EventSummary) o;
+        return id == other.id
+                && startMillis == other.startMillis
+                && endMillis == other.endMillis
+                && title.equals(other.title)
+                && location.equals(other.location);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, startMillis, endMillis, location);
+    }
+
+    @Override
+    public String toString() {
+        return "EventSummary{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", startMillis=" + startMillis +
+                ", endMillis=" + endMillis +
+                ", location='" + location + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.sems.models;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything a month grid shows, computed ahead of time: one cell per grid slot
+ * starting on Monday, with null for the blanks before the first of the month,
+ * and the number of events touching each cell's day.
+ */
+public final class MonthData {
+    private final YearMonth month;
+    private final List<LocalDate> cells;
+    private final int[] cellCounts;
+    private final int maxCount;
+
+    private MonthData(YearMonth month, List<LocalDate> cells, int[] cellCounts, int maxCount) {
+        this.month = month;
+        this.cells = cells;
+        this.cellCounts = cellCounts;
+        this.maxCount = maxCount;
+    }
+
+    /**
+     * @param summary the month's event summary; null for a bare grid
+     */
+    public static MonthData build(YearMonth month, MonthSummary summary) {
+        LocalDate firstOfMonth = month.atDay(1);
+        int leadingBlanks = firstOfMonth.getDayOfWeek().getValue() - 1;
+        int daysInMonth = month.lengthOfMonth();
+
+        List<LocalDate> cells = new ArrayList<>(leadingBlanks + daysInMonth);
+        for (int i = 0; i < leadingBlanks; i++) {
+            cells.add(null);
+        }
+        for (int i = 0; i < daysInMonth; i++) {
+            cells.add(firstOfMonth.plusDays(i));
+        }
+
+        // Shift the per-day counts past the blank cells
+        int[] cellCounts = new int[cells.size()];
+        if (summary != null && !summary.isEmpty()) {
+            for (int day = 1; day <= daysInMonth; day++) {
+                if (summary.hasEvents(day)) {
+                    cellCounts[leadingBlanks + day - 1] = summary.getCount(day);
+                }
+            }
+        }
+        int maxCount = summary != null ? summary.getMaxCount() : 0;
+        return new MonthData(month, Collections.unmodifiableList(cells), cellCounts, maxCount);
+    }
+
+    public YearMonth getMonth() { return month; }
+
+    public List<LocalDate> getCells() { return cells; }
+
+    /** Events per cell, parallel to {@link #getCells()}; shared, so do not modify. */
+    public int[] getCellCounts() { return cellCounts; }
+
+    /** The busiest day's count, for scaling density shading. */
+    public int getMaxCount() { return maxCount; }
+}
@@ -0,0 +1,106 @@
+package com.example.sems.models;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * Which days of a month have events and how many, in a few dozen bytes: bit
+ * {@code day - 1} of the presence mask is set when that day has any event, and
+ * the per-day counts saturate at {@link #MAX_COUNT}. Small enough to keep for
+ * every month visited and to persist alongside the events.
+ */
+public final class MonthSummary {
+    /** Counts are stored in one unsigned byte per day. */
+    public static final int MAX_COUNT = 0xff;
+
+    private final YearMonth month;
+    private final int presenceMask;
+    private final byte[] counts;
+    private final int maxCount;
+
+    private MonthSummary(YearMonth month, int presenceMask, byte[] counts) {
+        this.month = month;
+        this.presenceMask = presenceMask;
+        this.counts = counts;
+        int max = 0;
+        for (byte count : counts) {
+            max = Math.max(max, count & 0xff);
+        }
+        this.maxCount = max;
+    }
+
+    /**
+     * @param dayCounts events per day of the month, as returned by
+     *                  DatabaseHelper.getEventCountsByDay for the month
+     */
+    public static MonthSummary fromDayCounts(YearMonth month, int[] dayCounts) {
+        int days = month.lengthOfMonth();
+        byte[] counts = new byte[days];
+        int mask = 0;
+        for (int i = 0; i < days && i < dayCounts.length; i++) {
+            if (dayCounts[i] > 0) {
+                mask |= 1 << i;
+                counts[i] = (byte) Math.min(dayCounts[i], MAX_COUNT);
+            }
+        }
+        return new MonthSummary(month, mask, counts);
+    }
+
+    /**
+     * Rebuilds a summary from {@link #getPresenceMask()} and {@link #toCountBytes()}.
+     *
+     * @throws IllegalArgumentException if the counts do not cover the month
+     */
+    public static MonthSummary fromStored(YearMonth month, int presenceMask, byte[] counts) {
+        if (counts == null || counts.length != month.lengthOfMonth()) {
+            throw new IllegalArgumentException("Stored counts do not match " + month);
+        }
+        return new MonthSummary(month, presenceMask, counts.clone());
+    }
+
+    public YearMonth getMonth() { return month; }
+
+    public int getPresenceMask() { return presenceMask; }
+
+    public boolean isEmpty() { return presenceMask == 0; }
+
+    public boolean hasEvents(int dayOfMonth) {
+        return (presenceMask & (1 << (dayOfMonth - 1))) != 0;
+    }
+
+    public int getCount(int dayOfMonth) {
+        return counts[dayOfMonth - 1] & 0xff;
+    }
+
+    /** The busiest day's count, for scaling density shading; 0 for an empty month. */
+    public int getMaxCount() { return maxCount; }
+
+    /** The per-day counts as stored, one unsigned byte per day. */
+    public byte[] toCountBytes() {
+        return counts.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MonthSummary)) return false;
+        MonthSummary other = (MonthSummary) o;
+        return presenceMask == other.presenceMask
+                && month.equals(other.month)
+                && Arrays.equals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * month.hashCode() + presenceMask) + Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        return "MonthSummary{" +
+                "month=" + month +
+                ", presenceMask=" + Integer.toBinaryString(presenceMask) +
+                ", maxCount=" + maxCount +
+                '}';
+    }
+}
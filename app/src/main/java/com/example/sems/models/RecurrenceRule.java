@@ -0,0 +1,142 @@
+package com.example.sems.models;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * How a recurring event repeats: every {@code interval} days, weeks or months from
+ * its first occurrence, optionally stopping after {@code count} occurrences or at
+ * {@code untilMillis}, minus the occurrences listed as exceptions. Occurrences are
+ * never stored; {@link #expand} computes only those overlapping a requested window.
+ */
+public class RecurrenceRule {
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final int count;
+    private final long untilMillis;
+    private final Set<Long> exceptions;
+
+    /**
+     * @param interval    repeat every this many units; values below 1 mean 1
+     * @param count       total occurrences including the first, or 0 for no limit
+     * @param untilMillis last instant an occurrence may start at, or 0 for no limit
+     * @param exceptions  start times of skipped occurrences
+     */
+    public RecurrenceRule(Frequency frequency, int interval, int count, long untilMillis,
+                          Collection<Long> exceptions) {
+        if (frequency == null) {
+            throw new IllegalArgumentException("Frequency is required");
+        }
+        this.frequency = frequency;
+        this.interval = Math.max(1, interval);
+        this.count = Math.max(0, count);
+        this.untilMillis = Math.max(0, untilMillis);
+        this.exceptions = exceptions != null && !exceptions.isEmpty()
+                ? Collections.unmodifiableSet(new HashSet<>(exceptions))
+                : Collections.emptySet();
+    }
+
+    public Frequency getFrequency() { return frequency; }
+
+    public int getInterval() { return interval; }
+
+    public int getCount() { return count; }
+
+    public long getUntilMillis() { return untilMillis; }
+
+    public Set<Long> getExceptions() { return exceptions; }
+
+    /** Start of the {@code index}-th occurrence (0 is the first), in wall-clock time of {@code zone}. */
+    public long occurrenceStart(long firstStart, long index, ZoneId zone) {
+        ZonedDateTime first = Instant.ofEpochMilli(firstStart).atZone(zone);
+        return step(first, index).toInstant().toEpochMilli();
+    }
+
+    /** Start of the last occurrence, or {@link Long#MAX_VALUE} if the series never ends. */
+    public long lastOccurrenceStart(long firstStart, ZoneId zone) {
+        long last = Long.MAX_VALUE;
+        if (count > 0) {
+            last = occurrenceStart(firstStart, count - 1, zone);
+        }
+        if (untilMillis > 0) {
+            last = Math.min(last, untilMillis);
+        }
+        return last;
+    }
+
+    /**
+     * Start times of the occurrences overlapping [from, to), skipping exceptions.
+     * Work is proportional to the number of occurrences in the window, not to how
+     * far the window lies from the first occurrence.
+     */
+    public List<Long> expand(long firstStart, long duration, long from, long to, ZoneId zone) {
+        List<Long> starts = new ArrayList<>();
+        if (to <= from) {
+            return starts;
+        }
+        ZonedDateTime first = Instant.ofEpochMilli(firstStart).atZone(zone);
+        // Jump to just before the first occurrence that can still be running at 'from'
+        long index = 0;
+        if (from - duration > firstStart) {
+            ZonedDateTime target = Instant.ofEpochMilli(from - duration).atZone(zone);
+            index = Math.max(0, unit().between(first, target) / interval - 1);
+        }
+        while (count == 0 || index < count) {
+            long start = step(first, index).toInstant().toEpochMilli();
+            if (start >= to || (untilMillis > 0 && start > untilMillis)) {
+                break;
+            }
+            boolean overlaps = duration > 0 ? start + duration > from : start >= from;
+            if (overlaps && !exceptions.contains(start)) {
+                starts.add(start);
+            }
+            index++;
+        }
+        return starts;
+    }
+
+    // Month steps keep the day of month where it exists and clamp to the month's end otherwise
+    private ZonedDateTime step(ZonedDateTime first, long index) {
+        long units = index * interval;
+        switch (frequency) {
+            case DAILY:
+                return first.plusDays(units);
+            case WEEKLY:
+                return first.plusWeeks(units);
+            default:
+                return first.plusMonths(units);
+        }
+    }
+
+    private ChronoUnit unit() {
+        switch (frequency) {
+            case DAILY:
+                return ChronoUnit.DAYS;
+            case WEEKLY:
+                return ChronoUnit.WEEKS;
+            default:
+                return ChronoUnit.MONTHS;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RecurrenceRule{" +
+                "frequency=" + frequency +
+                ", interval=" + interval +
+                ", count=" + count +
+                ", untilMillis=" + untilMillis +
+                ", exceptions=" + exceptions.size() +
+                '}';
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.sems.models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Events already booked in a time slot, split by what they share with the event
+ * being scheduled: the organizer, the location, or both.
+ */
+public class ScheduleConflicts {
+    private final List<Event> organizerConflicts;
+    private final List<Event> locationConflicts;
+
+    public ScheduleConflicts(List<Event> organizerConflicts, List<Event> locationConflicts) {
+        this.organizerConflicts = Collections.unmodifiableList(organizerConflicts);
+        this.locationConflicts = Collections.unmodifiableList(locationConflicts);
+    }
+
+    public List<Event> getOrganizerConflicts() { return organizerConflicts; }
+
+    public List<Event> getLocationConflicts() { return locationConflicts; }
+
+    public boolean isEmpty() {
+        return organizerConflicts.isEmpty() && locationConflicts.isEmpty();
+    }
+}
@@ -1,15 +1,22 @@
 package com.example.sems.models;
 
+/**
+ * A user account as read from the database. Immutable, so a single instance can
+ * be shared between screens; edits build a new User and pass it to updateUser.
+ */
 public class User {
-    private int id;
-    private String email;
-    private String password;
-    private String name;
-    private String phoneNumber;
-    private String department;
-    private String position;
-    private String role; // "admin" or "user"
-    private boolean isActive;
+    public static final String ROLE_ADMIN = "admin";
+    public static final String ROLE_USER = "user";
+
+    private final int id;
+    private final String email;
+    private final String password;
+    private final String name;
+    private final String phoneNumber;
+    private final String department;
+    private final String position;
+    private final String role; // "admin" or "user"
+    private final boolean isActive;
 
     // Constructor
     public User(int id, String email, String password, String name, String phoneNumber, 
@@ -25,31 +32,24 @@ public class User {
         this.isActive = isActive;
     }
 
-    // Getters and Setters
+    // Getters
     public int getId() { return id; }
-    public void setId(int id) { this.id = id; }
 
     public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
 
     public String getPassword() { return password; }
-    public void setPassword(String password) { this.password = password; }
 
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
 
     public String getPhoneNumber() { return phoneNumber; }
-    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
 
     public String getDepartment() { return department; }
-    public void setDepartment(String department) { this.department = department; }
 
     public String getPosition() { return position; }
-    public void setPosition(String position) { this.position = position; }
 
     public String getRole() { return role; }
-    public void setRole(String role) { this.role = role; }
+
+    public boolean isAdmin() { return ROLE_ADMIN.equals(role); }
 
     public boolean isActive() { return isActive; }
-    public void setActive(boolean active) { isActive = active; }
-} 
\ No newline at end of file
+}
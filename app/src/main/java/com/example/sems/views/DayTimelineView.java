@@ -0,0 +1,366 @@
+package com.example.sems.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.util.LruCache;
+import android.util.TypedValue;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.ScrollView;
+
+import androidx.core.view.ViewCompat;
+import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
+import androidx.customview.widget.ExploreByTouchHelper;
+
+import com.example.sems.R;
+import com.example.sems.models.DayTimelineLayout;
+import com.example.sems.models.EventSummary;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A day as a 24-hour grid with each event drawn as a block from its start to its
+ * end, overlapping events side by side. The block positions come from
+ * {@link DayTimelineLayout}, computed on a background thread together with the
+ * ellipsized labels, and are cached per day and width, so returning to a day or
+ * scrolling only draws. Place inside a {@link ScrollView}; only the hours in view
+ * are drawn. Each block is a separate node for accessibility services, read as
+ * its title, time range and location.
+ */
+public class DayTimelineView extends View {
+    private static final int HOURS = 24;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    // "00:00" to "23:00", shared by every timeline
+    private static final String[] HOUR_LABELS = new String[HOURS];
+
+    static {
+        for (int hour = 0; hour < HOURS; hour++) {
+            HOUR_LABELS[hour] = String.format(Locale.ROOT, "%02d:00", hour);
+        }
+    }
+
+    // Layouts stay valid until the day's events or the view width change
+    private static final LruCache<String, Laid> LAYOUT_CACHE = new LruCache<>(16);
+    // Layout work is CPU-only, so it stays off the database thread
+    private static final ExecutorService LAYOUT_EXECUTOR = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "sems-timeline"));
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    // A computed layout plus the text drawn in and spoken for each block, in layout order
+    private static final class Laid {
+        final DayTimelineLayout layout;
+        final String[] titles;
+        final String[] times;
+        final String[] locations;
+        final String[] descriptions;
+
+        Laid(DayTimelineLayout layout, String[] titles, String[] times, String[] locations,
+             String[] descriptions) {
+            this.layout = layout;
+            this.titles = titles;
+            this.times = times;
+            this.locations = locations;
+            this.descriptions = descriptions;
+        }
+    }
+
+    private final TextPaint titlePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint timePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint hourLabelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint hourLinePaint = new Paint();
+    private final Paint blockPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Rect clip = new Rect();
+    private final RectF blockRect = new RectF();
+    private final BlockAccessibilityHelper accessibilityHelper;
+
+    private final float hourHeight;
+    private final float labelWidth;
+    private final float minBlockHeight;
+    private final float blockGap;
+    private final float blockPadding;
+    private final float cornerRadius;
+    private final float titleAscent;
+    private final float lineHeight;
+
+    private LocalDate day;
+    private List<EventSummary> events;
+    private Laid laid;
+    // Bumped per request so that a slower, older layout never replaces a newer one
+    private int generation;
+    // Day the view last scrolled to its first event for
+    private LocalDate scrolledDay;
+
+    public DayTimelineView(Context context) {
+        this(context, null);
+    }
+
+    public DayTimelineView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        hourHeight = dp(56);
+        labelWidth = dp(52);
+        minBlockHeight = dp(22);
+        blockGap = dp(1);
+        blockPadding = dp(4);
+        cornerRadius = dp(4);
+
+        titlePaint.setTextSize(sp(13));
+        titlePaint.setColor(context.getColor(R.color.white));
+        titlePaint.setFakeBoldText(true);
+        timePaint.setTextSize(sp(11));
+        timePaint.setColor(context.getColor(R.color.white));
+        hourLabelPaint.setTextSize(sp(11));
+        hourLabelPaint.setColor(context.getColor(R.color.text_secondary));
+        hourLinePaint.setColor(context.getColor(R.color.background_color));
+        hourLinePaint.setStrokeWidth(dp(1));
+        blockPaint.setColor(context.getColor(R.color.blue));
+
+        Paint.FontMetrics metrics = titlePaint.getFontMetrics();
+        titleAscent = -metrics.ascent;
+        lineHeight = metrics.descent - metrics.ascent;
+
+        accessibilityHelper = new BlockAccessibilityHelper(this);
+        ViewCompat.setAccessibilityDelegate(this, accessibilityHelper);
+    }
+
+    /** Shows {@code events} for {@code day}, reusing a cached layout when there is one. */
+    public void setEvents(LocalDate day, List<EventSummary> events) {
+        this.day = day;
+        this.events = events;
+        requestTimelineLayout();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+        int height = (int) Math.ceil(hourHeight * HOURS) + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(width, height);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (w != oldw) {
+            requestTimelineLayout();
+        }
+    }
+
+    private void requestTimelineLayout() {
+        int width = getWidth();
+        if (day == null || events == null || width == 0) {
+            return;
+        }
+        int requested = ++generation;
+        String key = day + "@" + width;
+        Laid cached = LAYOUT_CACHE.get(key);
+        if (cached != null && cached.layout.matches(day, width, events)) {
+            apply(cached);
+            return;
+        }
+
+        LocalDate forDay = day;
+        List<EventSummary> forEvents = events;
+        float gridLeft = getPaddingLeft() + labelWidth;
+        float gridRight = width - getPaddingRight();
+        // Measured on the background thread, so it gets paints of its own
+        TextPaint titles = new TextPaint(titlePaint);
+        TextPaint times = new TextPaint(timePaint);
+        LAYOUT_EXECUTOR.execute(() -> {
+            Laid result = layOut(forDay, forEvents, width, gridLeft, gridRight, titles, times);
+            MAIN_HANDLER.post(() -> {
+                LAYOUT_CACHE.put(key, result);
+                if (requested == generation) {
+                    apply(result);
+                }
+            });
+        });
+    }
+
+    private Laid layOut(LocalDate day, List<EventSummary> events, int width, float gridLeft, float gridRight,
+                        TextPaint titles, TextPaint times) {
+        DayTimelineLayout layout = DayTimelineLayout.compute(day, events, width, gridLeft, gridRight,
+                hourHeight, minBlockHeight);
+        ZoneId zone = ZoneId.systemDefault();
+        int count = layout.getCount();
+        String[] titleText = new String[count];
+        String[] timeText = new String[count];
+        String[] locationText = new String[count];
+        String[] descriptions = new String[count];
+        for (int i = 0; i < count; i++) {
+            EventSummary event = layout.getEvent(i);
+            float textWidth = Math.max(0f, layout.getRight(i) - layout.getLeft(i) - 2 * (blockGap + blockPadding));
+            titleText[i] = TextUtils.ellipsize(event.getTitle(), titles, textWidth, TextUtils.TruncateAt.END)
+                    .toString();
+            String range = TIME_FORMAT.format(Instant.ofEpochMilli(event.getStartMillis()).atZone(zone))
+                    + " - " + TIME_FORMAT.format(Instant.ofEpochMilli(event.getEndMillis()).atZone(zone));
+            timeText[i] = TextUtils.ellipsize(range, times, textWidth, TextUtils.TruncateAt.END).toString();
+            String location = event.getLocation() != null ? event.getLocation() : "";
+            locationText[i] = TextUtils.ellipsize(location, times, textWidth, TextUtils.TruncateAt.END).toString();
+            descriptions[i] = location.isEmpty() ? event.getTitle() + ", " + range
+                    : event.getTitle() + ", " + range + ", " + location;
+        }
+        return new Laid(layout, titleText, timeText, locationText, descriptions);
+    }
+
+    private void apply(Laid result) {
+        laid = result;
+        invalidate();
+        accessibilityHelper.invalidateRoot();
+        // Open a newly shown day at its first event rather than at midnight
+        DayTimelineLayout layout = result.layout;
+        if (!layout.getDay().equals(scrolledDay) && getParent() instanceof ScrollView) {
+            scrolledDay = layout.getDay();
+            float y = layout.getCount() > 0 ? getPaddingTop() + layout.getTop(0) - hourHeight / 2f : 0f;
+            ((ScrollView) getParent()).scrollTo(0, (int) Math.max(0f, y));
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        // Inside a ScrollView the clip is the visible strip of the day
+        if (!canvas.getClipBounds(clip)) {
+            return;
+        }
+        float top = getPaddingTop();
+        float gridLeft = getPaddingLeft() + labelWidth;
+        float right = getWidth() - getPaddingRight();
+
+        int firstHour = Math.max(0, (int) ((clip.top - top) / hourHeight));
+        int lastHour = Math.min(HOURS - 1, (int) ((clip.bottom - top) / hourHeight));
+        for (int hour = firstHour; hour <= lastHour; hour++) {
+            float y = top + hour * hourHeight;
+            canvas.drawLine(gridLeft, y, right, y, hourLinePaint);
+            canvas.drawText(HOUR_LABELS[hour], getPaddingLeft(), y + titleAscent, hourLabelPaint);
+        }
+
+        if (laid == null) {
+            return;
+        }
+        DayTimelineLayout layout = laid.layout;
+        for (int i = 0; i < layout.getCount(); i++) {
+            float blockTop = top + layout.getTop(i);
+            float blockBottom = top + layout.getBottom(i);
+            if (blockTop > clip.bottom) {
+                break; // Blocks are in start order, so the rest are below the view
+            }
+            if (blockBottom < clip.top) {
+                continue;
+            }
+            blockRect.set(layout.getLeft(i) + blockGap, blockTop + blockGap, layout.getRight(i) - blockGap,
+                    blockBottom - blockGap);
+            canvas.drawRoundRect(blockRect, cornerRadius, cornerRadius, blockPaint);
+
+            float textX = blockRect.left + blockPadding;
+            float titleBaseline = blockRect.top + blockPadding + titleAscent;
+            canvas.drawText(laid.titles[i], textX, titleBaseline, titlePaint);
+            // The time and location only go in while the block has room for their lines
+            float textBottom = blockRect.bottom - blockPadding;
+            if (titleBaseline + lineHeight <= textBottom) {
+                canvas.drawText(laid.times[i], textX, titleBaseline + lineHeight, timePaint);
+                if (titleBaseline + 2 * lineHeight <= textBottom) {
+                    canvas.drawText(laid.locations[i], textX, titleBaseline + 2 * lineHeight, timePaint);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return accessibilityHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        return accessibilityHelper.dispatchKeyEvent(event) || super.dispatchKeyEvent(event);
+    }
+
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        accessibilityHelper.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+    }
+
+    /** One virtual view per event block, with its index in layout order as the id. */
+    private final class BlockAccessibilityHelper extends ExploreByTouchHelper {
+        private final Rect bounds = new Rect();
+
+        BlockAccessibilityHelper(View host) {
+            super(host);
+        }
+
+        @Override
+        protected int getVirtualViewAt(float x, float y) {
+            if (laid == null) {
+                return INVALID_ID;
+            }
+            DayTimelineLayout layout = laid.layout;
+            float top = getPaddingTop();
+            // Blocks never overlap, so the first one containing the point is the one
+            for (int i = 0; i < layout.getCount(); i++) {
+                if (x >= layout.getLeft(i) && x < layout.getRight(i)
+                        && y >= top + layout.getTop(i) && y < top + layout.getBottom(i)) {
+                    return i;
+                }
+            }
+            return INVALID_ID;
+        }
+
+        @Override
+        protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+            if (laid == null) {
+                return;
+            }
+            for (int i = 0; i < laid.layout.getCount(); i++) {
+                virtualViewIds.add(i);
+            }
+        }
+
+        @Override
+        protected void onPopulateNodeForVirtualView(int virtualViewId, AccessibilityNodeInfoCompat node) {
+            // An id kept from before the layout changed may no longer name a block
+            if (laid == null || virtualViewId >= laid.layout.getCount()) {
+                bounds.set(0, 0, 0, 0);
+                node.setBoundsInParent(bounds);
+                node.setContentDescription("");
+                return;
+            }
+            DayTimelineLayout layout = laid.layout;
+            float top = getPaddingTop();
+            bounds.set((int) layout.getLeft(virtualViewId), (int) (top + layout.getTop(virtualViewId)),
+                    (int) layout.getRight(virtualViewId), (int) (top + layout.getBottom(virtualViewId)));
+            node.setBoundsInParent(bounds);
+            node.setContentDescription(laid.descriptions[virtualViewId]);
+        }
+
+        @Override
+        protected boolean onPerformActionForVirtualView(int virtualViewId, int action, Bundle arguments) {
+            // Blocks are read-only, as the list rows they replaced were
+            return false;
+        }
+    }
+
+    private float dp(float value) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, value, getResources().getDisplayMetrics());
+    }
+
+    private float sp(float value) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, value, getResources().getDisplayMetrics());
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.sems.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Bundle;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+
+import androidx.core.view.ViewCompat;
+import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
+import androidx.customview.widget.ExploreByTouchHelper;
+
+import com.example.sems.R;
+import com.example.sems.interfaces.OnDateClickListener;
+import com.example.sems.models.MonthData;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One month of the calendar drawn as a single view: day numbers, the today and
+ * selection circles, event dots and density shading all go straight to the
+ * canvas, so a page costs one view instead of a cell layout per day. Always six
+ * rows tall so that pages do not change height as months are swiped. Each day
+ * is still a separate node for accessibility services, announced with its date
+ * and event count, through {@link CellAccessibilityHelper}.
+ */
+public class MonthGridView extends View {
+    private static final int COLUMNS = 7;
+    // Enough rows for a 31-day month starting on a Sunday
+    private static final int ROWS = 6;
+    // Range of the density shading's alpha, out of 255
+    private static final int MIN_DENSITY_ALPHA = 0x1a;
+    private static final int MAX_DENSITY_ALPHA = 0x66;
+    private static final DateTimeFormatter SPOKEN_DATE = DateTimeFormatter.ofLocalizedDate(FormatStyle.FULL);
+
+    // "1" to "31", shared by every grid instead of formatted per draw
+    private static final String[] DAY_LABELS = new String[31];
+
+    static {
+        for (int i = 0; i < DAY_LABELS.length; i++) {
+            DAY_LABELS[i] = String.valueOf(i + 1);
+        }
+    }
+
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint highlightTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint todayPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint selectedPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint dotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint highlightDotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint densityPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF cellRect = new RectF();
+    private final CellAccessibilityHelper accessibilityHelper;
+
+    private final float minCellHeight;
+    private final float circleRadius;
+    private final float dotRadius;
+    private final float dotGap;
+    private final float cellInset;
+    private final float cornerRadius;
+    // Offset from a cell's centre line to the day number's baseline; fixed per text size
+    private final float textBaselineOffset;
+
+    private List<LocalDate> cells = Collections.emptyList();
+    private int[] cellCounts = new int[0];
+    private int maxCount;
+    private LocalDate today = LocalDate.now();
+    private LocalDate selectedDate = today;
+    private OnDateClickListener listener;
+
+    private float cellWidth;
+    private float cellHeight;
+    // Cell under the finger since ACTION_DOWN, or -1
+    private int pressedCell = -1;
+
+    public MonthGridView(Context context) {
+        this(context, null);
+    }
+
+    public MonthGridView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        float textSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 14,
+                getResources().getDisplayMetrics());
+        minCellHeight = dp(48);
+        circleRadius = dp(16);
+        dotRadius = dp(3);
+        dotGap = dp(2);
+        cellInset = dp(2);
+        cornerRadius = dp(6);
+
+        textPaint.setTextSize(textSize);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        textPaint.setColor(context.getColor(R.color.black));
+        highlightTextPaint.set(textPaint);
+        highlightTextPaint.setColor(context.getColor(R.color.white));
+        todayPaint.setColor(context.getColor(R.color.blue));
+        selectedPaint.setColor(context.getColor(R.color.green));
+        dotPaint.setColor(context.getColor(R.color.blue));
+        highlightDotPaint.setColor(context.getColor(R.color.white));
+        densityPaint.setColor(context.getColor(R.color.calendar_density));
+
+        Paint.FontMetrics metrics = textPaint.getFontMetrics();
+        textBaselineOffset = -(metrics.ascent + metrics.descent) / 2f;
+
+        accessibilityHelper = new CellAccessibilityHelper(this);
+        ViewCompat.setAccessibilityDelegate(this, accessibilityHelper);
+    }
+
+    /** Shows {@code data}, keeping the current selection. */
+    public void setMonthData(MonthData data) {
+        cells = data.getCells();
+        cellCounts = data.getCellCounts();
+        maxCount = data.getMaxCount();
+        today = LocalDate.now();
+        invalidate();
+        accessibilityHelper.invalidateRoot();
+    }
+
+    public void setOnDateClickListener(OnDateClickListener listener) {
+        this.listener = listener;
+    }
+
+    public void setSelectedDate(LocalDate date) {
+        if (date != null && !date.equals(selectedDate)) {
+            selectedDate = date;
+            invalidate();
+            accessibilityHelper.invalidateRoot();
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+        int minHeight = (int) Math.ceil(minCellHeight * ROWS) + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(width, resolveSize(minHeight, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        cellWidth = (w - getPaddingLeft() - getPaddingRight()) / (float) COLUMNS;
+        cellHeight = (h - getPaddingTop() - getPaddingBottom()) / (float) ROWS;
+        accessibilityHelper.invalidateRoot();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        for (int i = 0; i < cells.size(); i++) {
+            LocalDate date = cells.get(i);
+            if (date == null) {
+                continue;
+            }
+            float left = getPaddingLeft() + (i % COLUMNS) * cellWidth;
+            float top = getPaddingTop() + (i / COLUMNS) * cellHeight;
+            float centerX = left + cellWidth / 2f;
+            float centerY = top + cellHeight / 2f;
+            int count = cellCounts[i];
+
+            boolean highlighted = true;
+            if (date.equals(today)) {
+                canvas.drawCircle(centerX, centerY, circleRadius, todayPaint);
+            } else if (date.equals(selectedDate)) {
+                canvas.drawCircle(centerX, centerY, circleRadius, selectedPaint);
+            } else {
+                highlighted = false;
+                if (count > 0 && maxCount > 0) {
+                    // Busier days are shaded darker, relative to the month's busiest day
+                    densityPaint.setAlpha(MIN_DENSITY_ALPHA
+                            + (MAX_DENSITY_ALPHA - MIN_DENSITY_ALPHA) * count / maxCount);
+                    cellRect.set(left + cellInset, top + cellInset,
+                            left + cellWidth - cellInset, top + cellHeight - cellInset);
+                    canvas.drawRoundRect(cellRect, cornerRadius, cornerRadius, densityPaint);
+                }
+            }
+
+            canvas.drawText(DAY_LABELS[date.getDayOfMonth() - 1], centerX, centerY + textBaselineOffset,
+                    highlighted ? highlightTextPaint : textPaint);
+            if (count > 0) {
+                // Inside the circle's lower edge so it stays visible on highlighted days
+                canvas.drawCircle(centerX, centerY + circleRadius - dotRadius - dotGap, dotRadius,
+                        highlighted ? highlightDotPaint : dotPaint);
+            }
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                pressedCell = cellAt(event.getX(), event.getY());
+                return pressedCell >= 0;
+            case MotionEvent.ACTION_UP:
+                int cell = cellAt(event.getX(), event.getY());
+                boolean clicked = cell >= 0 && cell == pressedCell;
+                pressedCell = -1;
+                if (clicked) {
+                    clickCell(cell);
+                    performClick();
+                }
+                return clicked;
+            case MotionEvent.ACTION_CANCEL:
+                pressedCell = -1;
+                return false;
+            default:
+                return pressedCell >= 0;
+        }
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return accessibilityHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        return accessibilityHelper.dispatchKeyEvent(event) || super.dispatchKeyEvent(event);
+    }
+
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        accessibilityHelper.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+    }
+
+    private void clickCell(int cell) {
+        LocalDate date = cells.get(cell);
+        setSelectedDate(date);
+        accessibilityHelper.sendEventForVirtualView(cell, AccessibilityEvent.TYPE_VIEW_CLICKED);
+        if (listener != null) {
+            listener.onDateClick(date);
+        }
+    }
+
+    // Index of the day cell at (x, y), or -1 outside the grid or on a blank cell
+    private int cellAt(float x, float y) {
+        if (cellWidth <= 0 || cellHeight <= 0) {
+            return -1;
+        }
+        int column = (int) ((x - getPaddingLeft()) / cellWidth);
+        int row = (int) ((y - getPaddingTop()) / cellHeight);
+        if (x < getPaddingLeft() || y < getPaddingTop() || column >= COLUMNS || row >= ROWS) {
+            return -1;
+        }
+        int index = row * COLUMNS + column;
+        return index < cells.size() && cells.get(index) != null ? index : -1;
+    }
+
+    // What a screen reader says for a day cell, e.g. "Monday, 3 March 2025, 2 events"
+    private String describeCell(int cell) {
+        int count = cellCounts[cell];
+        String events = count == 0 ? "no events" : count == 1 ? "1 event" : count + " events";
+        return SPOKEN_DATE.format(cells.get(cell)) + ", " + events;
+    }
+
+    /** One virtual view per day cell, in grid order, with the cell index as its id. */
+    private final class CellAccessibilityHelper extends ExploreByTouchHelper {
+        private final Rect bounds = new Rect();
+
+        CellAccessibilityHelper(View host) {
+            super(host);
+        }
+
+        @Override
+        protected int getVirtualViewAt(float x, float y) {
+            int cell = cellAt(x, y);
+            return cell >= 0 ? cell : INVALID_ID;
+        }
+
+        @Override
+        protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+            for (int i = 0; i < cells.size(); i++) {
+                if (cells.get(i) != null) {
+                    virtualViewIds.add(i);
+                }
+            }
+        }
+
+        @Override
+        protected void onPopulateNodeForVirtualView(int virtualViewId, AccessibilityNodeInfoCompat node) {
+            // An id kept from before a month change may name a blank cell now
+            if (virtualViewId >= cells.size() || cells.get(virtualViewId) == null) {
+                bounds.set(0, 0, 0, 0);
+                node.setBoundsInParent(bounds);
+                node.setContentDescription("");
+                return;
+            }
+            float left = getPaddingLeft() + (virtualViewId % COLUMNS) * cellWidth;
+            float top = getPaddingTop() + (virtualViewId / COLUMNS) * cellHeight;
+            bounds.set((int) left, (int) top, (int) (left + cellWidth), (int) (top + cellHeight));
+            node.setBoundsInParent(bounds);
+            node.setContentDescription(describeCell(virtualViewId));
+            node.setSelected(cells.get(virtualViewId).equals(selectedDate));
+            node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+        }
+
+        @Override
+        protected boolean onPerformActionForVirtualView(int virtualViewId, int action, Bundle arguments) {
+            if (action != AccessibilityNodeInfoCompat.ACTION_CLICK
+                    || virtualViewId >= cells.size() || cells.get(virtualViewId) == null) {
+                return false;
+            }
+            clickCell(virtualViewId);
+            return true;
+        }
+    }
+
+    private float dp(float value) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, value, getResources().getDisplayMetrics());
+    }
+}
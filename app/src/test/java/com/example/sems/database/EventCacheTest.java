@@ -0,0 +1,145 @@
+package com.example.sems.database;
+
+import com.example.sems.models.Event;
+import com.example.sems.models.EventSummary;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EventCacheTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 11);
+
+    @Test
+    public void putEvents_thenGetEvents_hits() {
+        EventCache cache = new EventCache();
+        List<EventSummary> events = Collections.singletonList(summary(1, DAY));
+
+        cache.putEvents(cache.beginLoad(), DAY, events);
+
+        assertEquals(events, cache.getEvents(DAY));
+        assertEquals(1, cache.getHitCount());
+        assertNull(cache.getEvents(DAY.plusDays(1)));
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void putEvents_afterInterveningWrite_isDropped() {
+        EventCache cache = new EventCache();
+        long generation = cache.beginLoad();
+
+        // A write lands between the query and the put: the loaded list may be stale
+        cache.invalidate(millis(DAY.plusDays(10)), millis(DAY.plusDays(10)));
+        cache.putEvents(generation, DAY, Collections.singletonList(summary(1, DAY)));
+        cache.putCounts(generation, DAY, new int[]{1});
+        cache.putUpcoming(generation, millis(DAY), Collections.singletonList(summary(1, DAY)));
+
+        assertNull(cache.getEvents(DAY));
+        assertFalse(cache.getCounts(DAY, new int[1]));
+        assertNull(cache.getUpcoming(millis(DAY)));
+        assertEquals(0, cache.getEntryCount());
+    }
+
+    @Test
+    public void invalidate_dropsOnlyTheDaysTheEventCovers() {
+        EventCache cache = new EventCache();
+        cache.putCounts(cache.beginLoad(), DAY, new int[]{1, 2, 3, 4});
+        Event twoDays = Event.builder()
+                .setTitle("Retreat")
+                .setDescription("Offsite")
+                .setStartMillis(millis(DAY.plusDays(1)) + 3_600_000L)
+                .setEndMillis(millis(DAY.plusDays(2)) + 3_600_000L)
+                .setLocation("Lodge")
+                .setOrganizer("organizer@sems.com")
+                .build();
+
+        cache.invalidate(twoDays);
+
+        int[] counts = new int[1];
+        assertTrue(cache.getCounts(DAY, counts));
+        assertEquals(1, counts[0]);
+        assertFalse(cache.getCounts(DAY.plusDays(1), new int[1]));
+        assertFalse(cache.getCounts(DAY.plusDays(2), new int[1]));
+        assertTrue(cache.getCounts(DAY.plusDays(3), counts));
+        assertEquals(4, counts[0]);
+    }
+
+    @Test
+    public void invalidate_alwaysDropsUpcomingList() {
+        EventCache cache = new EventCache();
+        cache.putUpcoming(cache.beginLoad(), millis(DAY), Collections.singletonList(summary(1, DAY)));
+
+        cache.invalidate(millis(DAY.plusYears(1)), millis(DAY.plusYears(1)));
+
+        assertNull(cache.getUpcoming(millis(DAY)));
+    }
+
+    @Test
+    public void getCounts_missesUnlessEveryDayIsCached() {
+        EventCache cache = new EventCache();
+        cache.putCounts(cache.beginLoad(), DAY, new int[]{2, 0});
+
+        int[] counts = new int[3];
+        assertFalse(cache.getCounts(DAY, counts));
+        assertArrayEquals(new int[3], counts);
+
+        int[] twoDays = new int[2];
+        assertTrue(cache.getCounts(DAY, twoDays));
+        assertArrayEquals(new int[]{2, 0}, twoDays);
+    }
+
+    @Test
+    public void putCounts_neverReplacesAFullList() {
+        EventCache cache = new EventCache();
+        List<EventSummary> events = Arrays.asList(summary(1, DAY), summary(2, DAY));
+        cache.putEvents(cache.beginLoad(), DAY, events);
+
+        cache.putCounts(cache.beginLoad(), DAY, new int[]{2});
+
+        assertEquals(events, cache.getEvents(DAY));
+    }
+
+    @Test
+    public void clear_dropsEverythingAndFencesLoadsInFlight() {
+        EventCache cache = new EventCache();
+        long generation = cache.beginLoad();
+        cache.putCounts(generation, DAY, new int[]{1});
+
+        cache.clear();
+        cache.putCounts(generation, DAY.plusDays(1), new int[]{1});
+
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getApproximateBytes());
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedBeyondEntryLimit() {
+        EventCache cache = new EventCache(2, Long.MAX_VALUE);
+        long generation = cache.beginLoad();
+        cache.putCounts(generation, DAY, new int[]{1, 2});
+        // Touch the first day so that the second is the eldest
+        assertTrue(cache.getCounts(DAY, new int[1]));
+
+        cache.putCounts(generation, DAY.plusDays(2), new int[]{3});
+
+        assertEquals(2, cache.getEntryCount());
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(cache.getCounts(DAY, new int[1]));
+        assertFalse(cache.getCounts(DAY.plusDays(1), new int[1]));
+    }
+
+    private static long millis(LocalDate day) {
+        return day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static EventSummary summary(int id, LocalDate day) {
+        long start = millis(day) + 9 * 3_600_000L;
+        return new EventSummary(id, "Event " + id, start, start + 3_600_000L, "Room " + id);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.sems.models;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DayTimelineLayoutTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 11);
+    private static final int WIDTH = 300;
+    // One pixel per minute keeps the expected coordinates readable
+    private static final float HOUR_HEIGHT = 60f;
+    private static final float MIN_HEIGHT = 30f;
+
+    @Test
+    public void compute_separateClustersKeepFullWidth() {
+        EventSummary first = event(1, 9, 0, 10, 0);
+        EventSummary second = event(2, 9, 30, 10, 30);
+        EventSummary later = event(3, 11, 0, 12, 0);
+
+        DayTimelineLayout layout = compute(Arrays.asList(first, second, later));
+
+        assertBlock(layout, 0, first, 0f, 540f, 150f, 600f);
+        assertBlock(layout, 1, second, 150f, 570f, 300f, 630f);
+        // Nothing is running by 11:00, so the cluster closed and the width is whole again
+        assertBlock(layout, 2, later, 0f, 660f, 300f, 720f);
+    }
+
+    @Test
+    public void compute_reusesLeftmostFreeColumn() {
+        EventSummary longer = event(1, 9, 0, 11, 0);
+        EventSummary shorter = event(2, 9, 0, 10, 0);
+        EventSummary afterShorter = event(3, 10, 0, 11, 0);
+
+        DayTimelineLayout layout = compute(Arrays.asList(shorter, afterShorter, longer));
+
+        // Same start: the longer event goes first and takes column 0
+        assertBlock(layout, 0, longer, 0f, 540f, 150f, 660f);
+        assertBlock(layout, 1, shorter, 150f, 540f, 300f, 600f);
+        // Column 1 is free again at 10:00, so no third column is opened
+        assertBlock(layout, 2, afterShorter, 150f, 600f, 300f, 660f);
+    }
+
+    @Test
+    public void compute_minimumHeightCountsTowardOverlap() {
+        EventSummary brief = event(1, 9, 0, 9, 5);
+        EventSummary next = event(2, 9, 10, 9, 20);
+
+        DayTimelineLayout layout = compute(Arrays.asList(brief, next));
+
+        // Stretched to 30 minutes, the first block reaches into the second one
+        assertBlock(layout, 0, brief, 0f, 540f, 150f, 570f);
+        assertBlock(layout, 1, next, 150f, 550f, 300f, 580f);
+    }
+
+    @Test
+    public void compute_clipsEventsToTheDay() {
+        long midnight = DAY.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        EventSummary overnightIn = new EventSummary(1, "In", midnight - 2 * 3_600_000L, midnight + 3_600_000L, "");
+        EventSummary overnightOut = new EventSummary(2, "Out", midnight + (23 * 60 + 50) * 60_000L,
+                midnight + 26 * 3_600_000L, "");
+
+        DayTimelineLayout layout = compute(Arrays.asList(overnightIn, overnightOut));
+
+        assertBlock(layout, 0, overnightIn, 0f, 0f, 300f, 60f);
+        // Kept at the minimum height and moved up so that it still ends at midnight
+        assertBlock(layout, 1, overnightOut, 0f, 1410f, 300f, 1440f);
+    }
+
+    @Test
+    public void matches_requiresSameDayWidthAndEvents() {
+        List<EventSummary> events = Arrays.asList(event(1, 9, 0, 10, 0));
+        DayTimelineLayout layout = compute(events);
+
+        assertTrue(layout.matches(DAY, WIDTH, events));
+        assertTrue(layout.matches(DAY, WIDTH, Arrays.asList(event(1, 9, 0, 10, 0))));
+        assertFalse(layout.matches(DAY, WIDTH + 1, events));
+        assertFalse(layout.matches(DAY.plusDays(1), WIDTH, events));
+        assertFalse(layout.matches(DAY, WIDTH, Arrays.asList(event(1, 9, 0, 11, 0))));
+    }
+
+    private static DayTimelineLayout compute(List<EventSummary> events) {
+        return DayTimelineLayout.compute(DAY, events, WIDTH, 0f, WIDTH, HOUR_HEIGHT, MIN_HEIGHT);
+    }
+
+    private static EventSummary event(int id, int startHour, int startMinute, int endHour, int endMinute) {
+        ZoneId zone = ZoneId.systemDefault();
+        long start = DAY.atTime(startHour, startMinute).atZone(zone).toInstant().toEpochMilli();
+        long end = DAY.atTime(endHour, endMinute).atZone(zone).toInstant().toEpochMilli();
+        return new EventSummary(id, "Event " + id, start, end, "Room " + id);
+    }
+
+    private static void assertBlock(DayTimelineLayout layout, int index, EventSummary event,
+                                    float left, float top, float right, float bottom) {
+        assertSame(event, layout.getEvent(index));
+        assertEquals(left, layout.getLeft(index), 0.01f);
+        assertEquals(top, layout.getTop(index), 0.01f);
+        assertEquals(right, layout.getRight(index), 0.01f);
+        assertEquals(bottom, layout.getBottom(index), 0.01f);
+    }
+}
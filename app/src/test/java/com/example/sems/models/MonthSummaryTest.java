@@ -0,0 +1,84 @@
+package com.example.sems.models;
+
+import org.junit.Test;
+
+import java.time.YearMonth;
+
+import static org.junit.Assert.*;
+
+public class MonthSummaryTest {
+    private static final YearMonth JANUARY = YearMonth.of(2025, 1);
+
+    @Test
+    public void fromDayCounts_setsPresenceBitPerBusyDay() {
+        int[] counts = new int[31];
+        counts[0] = 2;
+        counts[2] = 1;
+        counts[30] = 4;
+
+        MonthSummary summary = MonthSummary.fromDayCounts(JANUARY, counts);
+
+        assertEquals((1 << 0) | (1 << 2) | (1 << 30), summary.getPresenceMask());
+        assertTrue(summary.hasEvents(1));
+        assertFalse(summary.hasEvents(2));
+        assertTrue(summary.hasEvents(31));
+        assertEquals(2, summary.getCount(1));
+        assertEquals(0, summary.getCount(2));
+        assertEquals(4, summary.getMaxCount());
+        assertFalse(summary.isEmpty());
+    }
+
+    @Test
+    public void fromDayCounts_saturatesAt255() {
+        int[] counts = new int[31];
+        counts[4] = 255;
+        counts[5] = 1000;
+
+        MonthSummary summary = MonthSummary.fromDayCounts(JANUARY, counts);
+
+        assertEquals(MonthSummary.MAX_COUNT, summary.getCount(5));
+        assertEquals(MonthSummary.MAX_COUNT, summary.getCount(6));
+        assertEquals(MonthSummary.MAX_COUNT, summary.getMaxCount());
+    }
+
+    @Test
+    public void fromDayCounts_noEvents_isEmpty() {
+        MonthSummary summary = MonthSummary.fromDayCounts(YearMonth.of(2025, 2), new int[28]);
+
+        assertTrue(summary.isEmpty());
+        assertEquals(0, summary.getMaxCount());
+        assertEquals(28, summary.toCountBytes().length);
+    }
+
+    @Test
+    public void fromStored_roundTripsStoredForm() {
+        int[] counts = new int[31];
+        counts[9] = 3;
+        counts[19] = 200;
+        MonthSummary summary = MonthSummary.fromDayCounts(JANUARY, counts);
+
+        MonthSummary restored = MonthSummary.fromStored(JANUARY, summary.getPresenceMask(), summary.toCountBytes());
+
+        assertEquals(summary, restored);
+        assertEquals(summary.hashCode(), restored.hashCode());
+        assertEquals(200, restored.getCount(20));
+        assertEquals(200, restored.getMaxCount());
+    }
+
+    @Test
+    public void fromStored_keepsNoReferenceToCallerArray() {
+        int[] counts = new int[31];
+        counts[0] = 1;
+        byte[] stored = MonthSummary.fromDayCounts(JANUARY, counts).toCountBytes();
+
+        MonthSummary restored = MonthSummary.fromStored(JANUARY, 1, stored);
+        stored[0] = 9;
+
+        assertEquals(1, restored.getCount(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromStored_wrongLength_throws() {
+        MonthSummary.fromStored(JANUARY, 0, new byte[30]);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.sems.models;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RecurrenceRuleTest {
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 24 * HOUR;
+    // Wednesday 1 January 2025, 09:00 UTC
+    private static final long FIRST = ZonedDateTime.of(2025, 1, 1, 9, 0, 0, 0, UTC).toInstant().toEpochMilli();
+
+    @Test
+    public void expand_farWindow_jumpsByInterval() {
+        RecurrenceRule everyOtherDay = new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 2, 0, 0, null);
+
+        List<Long> starts = everyOtherDay.expand(FIRST, HOUR, FIRST + 1000 * DAY, FIRST + 1006 * DAY, UTC);
+
+        assertEquals(Arrays.asList(FIRST + 1000 * DAY, FIRST + 1002 * DAY, FIRST + 1004 * DAY), starts);
+    }
+
+    @Test
+    public void expand_includesOccurrenceStillRunningAtWindowStart() {
+        RecurrenceRule daily = new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, 0, 0, null);
+        long from = FIRST + 5 * DAY + HOUR;
+
+        List<Long> starts = daily.expand(FIRST, 36 * HOUR, from, from + HOUR, UTC);
+
+        assertEquals(Arrays.asList(FIRST + 4 * DAY, FIRST + 5 * DAY), starts);
+    }
+
+    @Test
+    public void expand_stopsAfterCount() {
+        RecurrenceRule threeTimes = new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 1, 3, 0, null);
+
+        List<Long> starts = threeTimes.expand(FIRST, HOUR, FIRST, FIRST + 365 * DAY, UTC);
+
+        assertEquals(Arrays.asList(FIRST, FIRST + 7 * DAY, FIRST + 14 * DAY), starts);
+        assertEquals(FIRST + 14 * DAY, threeTimes.lastOccurrenceStart(FIRST, UTC));
+    }
+
+    @Test
+    public void expand_stopsAfterUntil_inclusive() {
+        RecurrenceRule untilThird = new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, 0, FIRST + 2 * DAY, null);
+
+        List<Long> starts = untilThird.expand(FIRST, HOUR, FIRST, FIRST + 30 * DAY, UTC);
+
+        assertEquals(Arrays.asList(FIRST, FIRST + DAY, FIRST + 2 * DAY), starts);
+    }
+
+    @Test
+    public void expand_skipsExceptions() {
+        RecurrenceRule daily = new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, 4, 0,
+                Collections.singleton(FIRST + DAY));
+
+        List<Long> starts = daily.expand(FIRST, HOUR, FIRST, FIRST + 30 * DAY, UTC);
+
+        assertEquals(Arrays.asList(FIRST, FIRST + 2 * DAY, FIRST + 3 * DAY), starts);
+    }
+
+    @Test
+    public void expand_emptyWindow_returnsNothing() {
+        RecurrenceRule daily = new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, 0, 0, null);
+
+        assertTrue(daily.expand(FIRST, HOUR, FIRST + DAY, FIRST + DAY, UTC).isEmpty());
+        assertTrue(daily.expand(FIRST, HOUR, FIRST - 10 * DAY, FIRST - DAY, UTC).isEmpty());
+    }
+
+    @Test
+    public void occurrenceStart_monthly_clampsToMonthEnd() {
+        long january31 = ZonedDateTime.of(2025, 1, 31, 9, 0, 0, 0, UTC).toInstant().toEpochMilli();
+        RecurrenceRule monthly = new RecurrenceRule(RecurrenceRule.Frequency.MONTHLY, 1, 0, 0, null);
+
+        long february = ZonedDateTime.of(2025, 2, 28, 9, 0, 0, 0, UTC).toInstant().toEpochMilli();
+        long march = ZonedDateTime.of(2025, 3, 31, 9, 0, 0, 0, UTC).toInstant().toEpochMilli();
+        assertEquals(february, monthly.occurrenceStart(january31, 1, UTC));
+        assertEquals(march, monthly.occurrenceStart(january31, 2, UTC));
+    }
+}